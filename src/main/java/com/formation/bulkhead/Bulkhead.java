@@ -0,0 +1,62 @@
+package com.formation.bulkhead;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.formation.exception.ExceptionCode;
+import com.formation.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Fixed pool with a bounded queue that runs one class of heavy requests off the servlet threads. Its
+ * thread count is also the most database connections that class can hold at once. Work beyond the
+ * queue is refused with 503 rather than borrowing threads from other traffic.
+ *
+ * Publishes the executor.* metrics tagged name=&lt;bulkhead&gt;, executor.idle is the time tasks wait
+ * in the queue and executor the time they run.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+    private final long retryAfterSeconds;
+
+    public Bulkhead(String name, int threads, int queueCapacity, long retryAfterSeconds, MeterRegistry registry) {
+        this.name = name;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(name + "-bulkhead-"));
+        this.executor = ExecutorServiceMetrics.monitor(registry, pool, name);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(retryAfterSeconds,
+                ExceptionCode.SERVER_OVERLOADED, name, retryAfterSeconds));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,34 @@
+package com.formation.coalescing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link Coalesced}. Runs outside the transaction and cache interceptors, so callers waiting
+ * on a shared load do not hold a connection while they wait.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CoalescingAspect {
+
+    private final SingleFlight<List<Object>, Object> flights = new SingleFlight<>();
+
+    @Around("@annotation(com.formation.coalescing.Coalesced)")
+    public Object coalesce(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(((MethodSignature) joinPoint.getSignature()).getMethod());
+        key.addAll(Arrays.asList(args));
+        return flights.execute(key, joinPoint::proceed);
+    }
+}
@@ -0,0 +1,32 @@
+package com.formation.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.formation.bulkhead.Bulkhead;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+public class BulkheadConfig {
+
+    @Value("${formation.limits.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    // Keyword searches over LIKE scans and the search engines
+    @Bean
+    public Bulkhead searchBulkhead(MeterRegistry registry,
+            @Value("${formation.bulkhead.search.threads:4}") int threads,
+            @Value("${formation.bulkhead.search.queue:50}") int queue) {
+        return new Bulkhead("search", threads, queue, retryAfterSeconds, registry);
+    }
+
+    // Availability and date range reports
+    @Bean
+    public Bulkhead reportBulkhead(MeterRegistry registry,
+            @Value("${formation.bulkhead.report.threads:2}") int threads,
+            @Value("${formation.bulkhead.report.queue:25}") int queue) {
+        return new Bulkhead("report", threads, queue, retryAfterSeconds, registry);
+    }
+}
@@ -0,0 +1,23 @@
+package com.formation.config;
+
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.jcache.JCacheCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String COURSES = "courses";
+    public static final String UPCOMING_COURSES = "upcomingCourses";
+    public static final String ONGOING_COURSES = "ongoingCourses";
+
+    // Evictions wait for the surrounding transaction to commit, so a concurrent read cannot
+    // put the old row back between the eviction and the commit
+    @Bean
+    public CacheManagerCustomizer<JCacheCacheManager> transactionAwareCaches() {
+        return cacheManager -> cacheManager.setTransactionAware(true);
+    }
+}
@@ -0,0 +1,50 @@
+package com.formation.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.formation.pagination.PageEnvelopeSerializer;
+
+@Configuration
+public class JacksonConfig {
+
+    // Lazy associations that were not loaded are written as their id instead of being fetched
+    // while serializing, which also keeps cached detached entities serializable
+    @Bean
+    public Module hibernateModule() {
+        return new Hibernate5Module()
+            .enable(Hibernate5Module.Feature.SERIALIZE_IDENTIFIER_FOR_LAZY_NOT_LOADED_OBJECTS);
+    }
+
+    // Pages and slices are written as items plus page, size, hasNext and the total when counted
+    @Bean
+    public Module pageEnvelopeModule() {
+        return new SimpleModule("PageEnvelope").addSerializer(new PageEnvelopeSerializer());
+    }
+
+    // The binary converters are built from the same customized builder as the JSON one, so the
+    // payloads carry the same fields, date formats and Hibernate handling
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // Pages repeat the same levels, statuses and room numbers on every row, Smile writes each
+    // short string once and back-references it afterwards
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory smile = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(smile).build());
+    }
+}
@@ -0,0 +1,78 @@
+package com.formation.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.reactive.CourseCatalogHandler;
+import com.formation.reactive.ReactiveCatalogServer;
+import com.formation.reactive.ReactiveCourseRepository;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+
+/**
+ * Read-only reactive course catalog on its own port, active once {@code formation.reactive.port} is
+ * set. It reads the same database as JPA through R2DBC, with the {@code spring.datasource} credentials
+ * unless overridden, and a small pool since no connection is held while a client is waiting. The
+ * r2dbc-h2 driver used locally runs queries on the calling thread, the Postgres driver is non-blocking.
+ */
+@Configuration
+@ConditionalOnProperty(name = "formation.reactive.port")
+public class ReactiveCatalogConfig {
+
+    // The pool stays inside the repository, a ConnectionFactory bean would make the JDBC DataSource
+    // auto-configuration back off
+    @Bean
+    public ReactiveCourseRepository reactiveCourseRepository(
+            @Value("${formation.reactive.r2dbc-url}") String url,
+            @Value("${formation.reactive.username:${spring.datasource.username:}}") String username,
+            @Value("${formation.reactive.password:${spring.datasource.password:}}") String password,
+            @Value("${formation.reactive.pool.max-size:10}") int maxSize) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+            .option(ConnectionFactoryOptions.USER, username)
+            .option(ConnectionFactoryOptions.PASSWORD, password)
+            .build();
+        ConnectionPoolConfiguration pool = ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+            .name("reactive-catalog")
+            .maxSize(maxSize)
+            .maxAcquireTime(Duration.ofSeconds(30))
+            .build();
+        return new ReactiveCourseRepository(new ConnectionPool(pool));
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> catalogRoutes(ReactiveCourseRepository reactiveCourseRepository) {
+        CourseCatalogHandler handler = new CourseCatalogHandler(reactiveCourseRepository);
+        return RouterFunctions.route()
+            .GET("/api/courses", handler::list)
+            .GET("/api/courses/search", handler::search)
+            .GET("/api/courses/upcoming", handler::upcoming)
+            .GET("/api/courses/ongoing", handler::ongoing)
+            .build();
+    }
+
+    @Bean
+    public ReactiveCatalogServer reactiveCatalogServer(RouterFunction<ServerResponse> catalogRoutes,
+            ObjectMapper objectMapper, @Value("${formation.reactive.port}") int port) {
+        HandlerStrategies strategies = HandlerStrategies.builder()
+            .codecs(codecs -> {
+                codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+            })
+            .build();
+        return new ReactiveCatalogServer(catalogRoutes, strategies, port);
+    }
+}
@@ -0,0 +1,28 @@
+package com.formation.config;
+
+import java.sql.SQLException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+/**
+ * Read-only transactions are routed to the replica, which may lag behind the primary. Their sessions
+ * still read the second-level cache but never put into it, so a stale row cannot replace an evicted
+ * entry until the next write.
+ */
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        entityManager.unwrap(Session.class).setCacheMode(definition.isReadOnly() ? CacheMode.GET : CacheMode.NORMAL);
+        return transactionData;
+    }
+}
@@ -1,9 +1,14 @@
 package com.formation.controller;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -13,18 +18,26 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.formation.bulkhead.Bulkhead;
 import com.formation.entity.ClassRoom;
 import com.formation.exception.DuplicateResourceException;
 import com.formation.exception.ExceptionCode;
+import com.formation.exception.PreconditionFailedException;
 import com.formation.exception.ResourceInUseException;
 import com.formation.exception.ResourceNotFoundException;
 import com.formation.exception.ValidationException;
+import com.formation.limits.LimitGroup;
+import com.formation.limits.Limited;
+import com.formation.pagination.CursorPage;
 import com.formation.service.ClassRoomService;
+import com.formation.utils.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -46,6 +59,12 @@ public class ClassRoomController {
 
     @Autowired
     private ClassRoomService classRoomService;
+    @Autowired
+    @Qualifier("searchBulkhead")
+    private Bulkhead searchBulkhead;
+    @Autowired
+    @Qualifier("reportBulkhead")
+    private Bulkhead reportBulkhead;
 
     @Operation(summary = "Create a new classroom")
     @ApiResponses(value = {
@@ -72,13 +91,23 @@ public class ClassRoomController {
     @Operation(summary = "Get a classroom by its ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Classroom found"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Classroom not found")
     })
     @GetMapping("/{id}")
+    @Limited(LimitGroup.LOOKUP)
     public ResponseEntity<ClassRoom> getClassRoomById(
-            @Parameter(description = "ID of the classroom") @PathVariable Long id) {
+            @Parameter(description = "ID of the classroom") @PathVariable Long id,
+            WebRequest request) {
         try {
-            return ResponseEntity.ok(classRoomService.findById(id));
+            String eTag = ETags.of(id, classRoomService.findVersionById(id));
+            if (ETags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                // The entity is never loaded
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            // The body may come from a cache that lags the version read above, tag it with its own
+            ClassRoom classRoom = classRoomService.findById(id);
+            return ResponseEntity.ok().eTag(ETags.of(id, classRoom.getVersion())).body(classRoom);
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.CLASSROOM_NOT_FOUND, id);
         }
@@ -100,23 +129,53 @@ public class ClassRoomController {
             : ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Get classrooms with keyset pagination ordered by id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of classrooms retrieved successfully"),
+        @ApiResponse(responseCode = "204", description = "No more classrooms"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ClassRoom>> getClassRoomsByCursor(
+            @Parameter(description = "Cursor returned with the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new ValidationException(ExceptionCode.INVALID_PAGE, "size=" + size);
+        }
+        CursorPage<ClassRoom> classrooms = classRoomService.findAllAfter(cursor, size);
+        return classrooms.hasContent() ? ResponseEntity.ok(classrooms) : ResponseEntity.noContent().build();
+    }
+
     @Operation(summary = "Update a classroom")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Classroom updated successfully"),
         @ApiResponse(responseCode = "404", description = "Classroom not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PutMapping("/{id}")
     public ResponseEntity<ClassRoom> updateClassRoom(
             @Parameter(description = "ID of the classroom to update") @PathVariable Long id,
+            @Parameter(description = "ETag of the version being replaced") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated classroom details") @Valid @RequestBody ClassRoom classRoom) {
         if (classRoom == null) {
             throw new ValidationException(ExceptionCode.NULL_REQUEST);
         }
+        if (ifMatch != null && !ETags.isWildcard(ifMatch)) {
+            classRoom.setVersion(ETags.versionOf(ifMatch, id)
+                .orElseThrow(() -> new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Classroom", id)));
+        }
         try {
             classRoom.setId(id);
-            return ResponseEntity.ok(classRoomService.update(classRoom));
+            ClassRoom updated = classRoomService.update(classRoom);
+            return ResponseEntity.ok().eTag(ETags.of(id, updated.getVersion())).body(updated);
         } catch (Exception e) {
+            if (e instanceof OptimisticLockingFailureException) {
+                throw new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Classroom", id);
+            }
             if (e.getMessage().contains("not found")) {
                 throw new ResourceNotFoundException(ExceptionCode.CLASSROOM_NOT_FOUND, id);
             }
@@ -153,7 +212,8 @@ public class ClassRoomController {
         @ApiResponse(responseCode = "400", description = "Invalid search parameters")
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<ClassRoom>> searchClassRooms(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<ClassRoom>>> searchClassRooms(
             @Parameter(description = "Search keyword") 
             @RequestParam(required = true) @NotBlank String keyword,
             @Parameter(description = "Pagination parameters") 
@@ -161,8 +221,10 @@ public class ClassRoomController {
         if (keyword.trim().length() < 2) {
             throw new ValidationException(ExceptionCode.INVALID_SEARCH, 2);
         }
-        Page<ClassRoom> results = classRoomService.search(keyword, pageable);
-        return results.hasContent() ? ResponseEntity.ok(results) : ResponseEntity.noContent().build();
+        return searchBulkhead.submit(() -> {
+            Page<ClassRoom> results = classRoomService.search(keyword, pageable);
+            return results.hasContent() ? ResponseEntity.ok(results) : ResponseEntity.noContent().build();
+        });
     }
 
     @Operation(summary = "Get available rooms by capacity")
@@ -171,7 +233,8 @@ public class ClassRoomController {
         @ApiResponse(responseCode = "400", description = "Invalid capacity parameter")
     })
     @GetMapping("/available")
-    public ResponseEntity<Page<ClassRoom>> getAvailableRooms(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<ClassRoom>>> getAvailableRooms(
             @Parameter(description = "Required capacity") 
             @RequestParam @Min(value = 1, message = "Capacity must be at least 1") int capacity,
             @Parameter(description = "Pagination parameters") 
@@ -179,8 +242,10 @@ public class ClassRoomController {
         if (capacity < 1) {
             throw new ValidationException(ExceptionCode.INVALID_CAPACITY, 1, Integer.MAX_VALUE);
         }
-        Page<ClassRoom> rooms = classRoomService.findAvailableRooms(capacity, pageable);
-        return rooms.hasContent() ? ResponseEntity.ok(rooms) : ResponseEntity.noContent().build();
+        return reportBulkhead.submit(() -> {
+            Page<ClassRoom> rooms = classRoomService.findAvailableRooms(capacity, pageable);
+            return rooms.hasContent() ? ResponseEntity.ok(rooms) : ResponseEntity.noContent().build();
+        });
     }
 
     @Operation(summary = "Get empty classrooms")
@@ -190,14 +255,17 @@ public class ClassRoomController {
         @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
     })
     @GetMapping("/empty")
-    public ResponseEntity<Page<ClassRoom>> getEmptyRooms(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<ClassRoom>>> getEmptyRooms(
             @Parameter(description = "Pagination parameters") Pageable pageable) {
-        try {
-            Page<ClassRoom> rooms = classRoomService.findEmptyRooms(pageable);
-            return rooms.hasContent() ? ResponseEntity.ok(rooms) : ResponseEntity.noContent().build();
-        } catch (Exception e) {
-            throw new ValidationException(ExceptionCode.INVALID_ROOM_NUMBER, "Invalid pagination parameters");
-        }
+        return reportBulkhead.submit(() -> {
+            try {
+                Page<ClassRoom> rooms = classRoomService.findEmptyRooms(pageable);
+                return rooms.hasContent() ? ResponseEntity.ok(rooms) : ResponseEntity.noContent().build();
+            } catch (Exception e) {
+                throw new ValidationException(ExceptionCode.INVALID_ROOM_NUMBER, "Invalid pagination parameters");
+            }
+        });
     }
 
     @Operation(summary = "Get classrooms without trainers")
@@ -207,6 +275,7 @@ public class ClassRoomController {
         @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
     })
     @GetMapping("/without-trainers")
+    @Limited(LimitGroup.SCAN)
     public ResponseEntity<Page<ClassRoom>> getRoomsWithoutTrainers(
             @Parameter(description = "Pagination parameters") Pageable pageable) {
         try {
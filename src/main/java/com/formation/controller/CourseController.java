@@ -1,14 +1,23 @@
 package com.formation.controller;
 
+import java.io.OutputStream;
+import java.net.URI;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,18 +25,36 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.formation.bulkhead.Bulkhead;
+import com.formation.dto.CourseSummary;
 import com.formation.entity.Course;
 import com.formation.exception.DuplicateResourceException;
 import com.formation.exception.ExceptionCode;
+import com.formation.exception.PreconditionFailedException;
 import com.formation.exception.ResourceInUseException;
 import com.formation.exception.ResourceNotFoundException;
 import com.formation.exception.ValidationException;
+import com.formation.exports.ExportFormat;
+import com.formation.fields.FieldCatalog;
+import com.formation.fields.FieldSelection;
+import com.formation.fields.SparseFormats;
+import com.formation.limits.LimitGroup;
+import com.formation.limits.Limited;
+import com.formation.pagination.CursorPage;
+import com.formation.service.ExportService;
 import com.formation.service.CourseService;
+import com.formation.service.SparseFieldService;
+import com.formation.utils.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -50,6 +77,19 @@ public class CourseController {
 
     @Autowired
     private CourseService courseService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private SparseFieldService sparseFieldService;
+
+    @Autowired
+    private SparseFormats sparseFormats;
+    @Autowired
+    @Qualifier("searchBulkhead")
+    private Bulkhead searchBulkhead;
+    @Autowired
+    @Qualifier("reportBulkhead")
+    private Bulkhead reportBulkhead;
 
     @Operation(summary = "Create a new training course")
     @ApiResponses(value = {
@@ -75,14 +115,24 @@ public class CourseController {
     @Operation(summary = "Get course details by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Course details retrieved"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Course not found")
     })
     @GetMapping("/{id}")
+    @Limited(LimitGroup.LOOKUP)
     public ResponseEntity<Course> getCourseById(
             @Parameter(description = "Course ID") 
-            @PathVariable @Min(value = 1, message = "ID must be positive") Long id) {
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            WebRequest request) {
         try {
-            return ResponseEntity.ok(courseService.findById(id));
+            String eTag = ETags.of(id, courseService.findVersionById(id));
+            if (ETags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                // The entity is never loaded
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            // The body may come from a cache that lags the version read above, tag it with its own
+            Course course = courseService.findById(id);
+            return ResponseEntity.ok().eTag(ETags.of(id, course.getVersion())).body(course);
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.COURSE_NOT_FOUND, id);
         }
@@ -94,35 +144,112 @@ public class CourseController {
         @ApiResponse(responseCode = "204", description = "No courses found")
     })
     @GetMapping
-    public ResponseEntity<Page<Course>> getAllCourses(
+    public ResponseEntity<Slice<CourseSummary>> getAllCourses(
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "startDate", direction = Sort.Direction.DESC) 
             Pageable pageable) {
-        Page<Course> courses = courseService.findAll(pageable);
+        Slice<CourseSummary> courses = count 
+            ? courseService.findSummaries(pageable)
+            : courseService.findSummarySlice(pageable);
         return courses.hasContent() 
             ? ResponseEntity.ok(courses)
             : ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Get courses with only the requested fields",
+        description = "Only the requested columns are selected and the rows are streamed as a slice without totals")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of courses streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<StreamingResponseBody> getCoursesFields(
+            @Parameter(description = "Comma separated fields, e.g. id,title,startDate") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters") 
+            @PageableDefault(size = 10, sort = "startDate", direction = Sort.Direction.DESC) 
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept, (format, out) -> sparseFieldService.writeSlice(selection, pageable, format, out));
+    }
+
+    @Operation(summary = "Get courses with keyset pagination ordered by startDate descending, id descending")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of courses retrieved successfully"),
+        @ApiResponse(responseCode = "204", description = "No more courses"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Course>> getCoursesByCursor(
+            @Parameter(description = "Cursor returned with the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new ValidationException(ExceptionCode.INVALID_PAGE, "size=" + size);
+        }
+        CursorPage<Course> courses = courseService.findAllAfter(cursor, size);
+        return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Export courses as NDJSON or CSV",
+        description = "Rows are streamed from a database cursor, the response has no upper size limit")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    @GetMapping("/export")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> exportCourses(
+            @Parameter(description = "Output format, ndjson or csv") 
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_EXPORT_FORMAT, format);
+        }
+        StreamingResponseBody body = out -> exportService.exportCourses(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("courses"))
+            .body(body);
+    }
+
     @Operation(summary = "Update course details")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Course updated"),
         @ApiResponse(responseCode = "404", description = "Course not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version"),
         @ApiResponse(responseCode = "400", description = "Invalid course data")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Course> updateCourse(
             @Parameter(description = "Course ID") 
             @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            @Parameter(description = "ETag of the version being replaced") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated course details") 
             @Valid @RequestBody(required = true) Course course) {
         if (course == null) {
             throw new ValidationException(ExceptionCode.NULL_REQUEST);
         }
+        if (ifMatch != null && !ETags.isWildcard(ifMatch)) {
+            course.setVersion(ETags.versionOf(ifMatch, id)
+                .orElseThrow(() -> new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Course", id)));
+        }
         try {
             course.setId(id);
-            return ResponseEntity.ok(courseService.update(course));
+            Course updated = courseService.update(course);
+            return ResponseEntity.ok().eTag(ETags.of(id, updated.getVersion())).body(updated);
         } catch (Exception e) {
+            if (e instanceof OptimisticLockingFailureException) {
+                throw new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Course", id);
+            }
             if (e.getMessage().contains("not found")) {
                 throw new ResourceNotFoundException(ExceptionCode.COURSE_NOT_FOUND, id);
             }
@@ -160,18 +287,25 @@ public class CourseController {
         @ApiResponse(responseCode = "400", description = "Invalid date range")
     })
     @GetMapping("/date-range")
-    public ResponseEntity<Page<Course>> getCoursesByDateRange(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Slice<CourseSummary>>> getCoursesByDateRange(
             @Parameter(description = "Start date (YYYY-MM-DD)", required = true) 
             @RequestParam @NotNull(message = "Start date is required") LocalDate startDate,
             @Parameter(description = "End date (YYYY-MM-DD)", required = true) 
             @RequestParam @NotNull(message = "End date is required") LocalDate endDate,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "startDate") Pageable pageable) {
         if (startDate.isAfter(endDate)) {
             throw new ValidationException(ExceptionCode.INVALID_DATE_RANGE);
         }
-        Page<Course> courses = courseService.findByDateRange(startDate, endDate, pageable);
-        return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        return reportBulkhead.submit(() -> {
+            Slice<CourseSummary> courses = count 
+                ? courseService.findSummariesByDateRange(startDate, endDate, pageable)
+                : courseService.findSummarySliceByDateRange(startDate, endDate, pageable);
+            return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        });
     }
 
     @Operation(summary = "Search courses")
@@ -180,16 +314,47 @@ public class CourseController {
         @ApiResponse(responseCode = "204", description = "No matching courses found")
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<Course>> searchCourses(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Slice<Course>>> searchCourses(
             @Parameter(description = "Search keyword") 
             @RequestParam @NotBlank(message = "Search keyword cannot be empty") String keyword,
-            @Parameter(description = "Pagination parameters") 
-            @PageableDefault(size = 10, sort = "startDate") Pageable pageable) {
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
+            @Parameter(description = "Pagination parameters, results rank by relevance unless sort is given") 
+            @PageableDefault(size = 10) Pageable pageable) {
         if (keyword.trim().length() < 2) {
             throw new ValidationException(ExceptionCode.INVALID_SEARCH, 2);
         }
-        Page<Course> courses = courseService.search(keyword, pageable);
-        return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        return searchBulkhead.submit(() -> {
+            Slice<Course> courses = count 
+                ? courseService.search(keyword, pageable)
+                : courseService.searchSlice(keyword, pageable);
+            return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        });
+    }
+
+    @Operation(summary = "Search courses by keyword with only the requested fields")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of matching courses streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field or search term too short")
+    })
+    @GetMapping(value = "/search", params = "fields")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> searchCoursesFields(
+            @Parameter(description = "Search keyword") 
+            @RequestParam @NotBlank(message = "Search keyword cannot be empty") String keyword,
+            @Parameter(description = "Comma separated fields") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters, results rank by relevance unless sort is given") 
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        if (keyword.trim().length() < 2) {
+            throw new ValidationException(ExceptionCode.INVALID_SEARCH, 2);
+        }
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept,
+            (format, out) -> sparseFieldService.writeCourseSearch(keyword, selection, pageable, format, out));
     }
 
     @Operation(summary = "Get courses by trainer")
@@ -198,16 +363,87 @@ public class CourseController {
         @ApiResponse(responseCode = "204", description = "No courses found for trainer")
     })
     @GetMapping("/trainer/{trainerId}")
-    public ResponseEntity<Page<Course>> getCoursesByTrainer(
+    public ResponseEntity<Slice<CourseSummary>> getCoursesByTrainer(
             @Parameter(description = "Trainer ID") 
             @PathVariable @Min(value = 1, message = "Trainer ID must be positive") Long trainerId,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "startDate") Pageable pageable) {
         try {
-            Page<Course> courses = courseService.findByTrainerId(trainerId, pageable);
+            Slice<CourseSummary> courses = count 
+                ? courseService.findSummariesByTrainerId(trainerId, pageable)
+                : courseService.findSummarySliceByTrainerId(trainerId, pageable);
             return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.TRAINER_NOT_FOUND, trainerId);
         }
     }
+
+    @Operation(summary = "Enroll a student in a course")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Student enrolled"),
+        @ApiResponse(responseCode = "404", description = "Course or student not found"),
+        @ApiResponse(responseCode = "409", description = "Course is full or student already enrolled")
+    })
+    @PostMapping("/{id}/enrollments")
+    public ResponseEntity<Void> enrollStudent(
+            @Parameter(description = "Course ID") 
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            @Parameter(description = "Student ID", required = true) 
+            @RequestParam @Min(value = 1, message = "Student ID must be positive") Long studentId) {
+        try {
+            courseService.enroll(id, studentId);
+        } catch (Exception e) {
+            if (e.getMessage().contains("is full")) {
+                throw new ResourceInUseException(ExceptionCode.COURSE_FULL, id);
+            } else if (e.getMessage().contains("already enrolled")) {
+                throw new ResourceInUseException(ExceptionCode.STUDENT_DUPLICATE_ENROLLMENT);
+            } else if (e.getMessage().contains("Student not found")) {
+                throw new ResourceNotFoundException(ExceptionCode.STUDENT_NOT_FOUND, studentId);
+            }
+            throw new ResourceNotFoundException(ExceptionCode.COURSE_NOT_FOUND, id);
+        }
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+            .path("/{studentId}")
+            .buildAndExpand(studentId)
+            .toUri();
+        return ResponseEntity.created(location).build();
+    }
+
+    @Operation(summary = "Withdraw a student from a course")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Student withdrawn"),
+        @ApiResponse(responseCode = "404", description = "Student is not enrolled in this course")
+    })
+    @DeleteMapping("/{id}/enrollments/{studentId}")
+    public ResponseEntity<Void> unenrollStudent(
+            @Parameter(description = "Course ID") 
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            @Parameter(description = "Student ID") 
+            @PathVariable @Min(value = 1, message = "Student ID must be positive") Long studentId) {
+        try {
+            courseService.unenroll(id, studentId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            throw new ResourceNotFoundException(ExceptionCode.STUDENT_NOT_ENROLLED, studentId, id);
+        }
+    }
+
+    private static FieldSelection selectFields(String fields) {
+        try {
+            return FieldCatalog.COURSES.select(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_FIELDS, e.getMessage());
+        }
+    }
+
+    // Sparse slices are written in the negotiated encoding, like the full listings
+    private ResponseEntity<StreamingResponseBody> sparse(String accept, BiConsumer<JsonFactory, OutputStream> body)
+            throws HttpMediaTypeNotAcceptableException {
+        SparseFormats.Format format = sparseFormats.negotiate(accept);
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(out -> body.accept(format.getFactory(), out));
+    }
 }
\ No newline at end of file
@@ -1,14 +1,27 @@
 package com.formation.controller;
 
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,20 +29,39 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.formation.entity.Course;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.formation.bulkhead.Bulkhead;
+import com.formation.dto.CourseSummary;
+import com.formation.dto.StudentSummary;
 import com.formation.entity.Student;
 import com.formation.exception.DuplicateResourceException;
 import com.formation.exception.ExceptionCode;
+import com.formation.exception.PreconditionFailedException;
 import com.formation.exception.ResourceInUseException;
 import com.formation.exception.ResourceNotFoundException;
 import com.formation.exception.ValidationException;
+import com.formation.exports.ExportFormat;
+import com.formation.fields.FieldCatalog;
+import com.formation.fields.FieldSelection;
+import com.formation.fields.SparseFormats;
+import com.formation.imports.ImportReport;
+import com.formation.limits.LimitGroup;
+import com.formation.limits.Limited;
+import com.formation.pagination.CursorPage;
 import com.formation.service.CourseService;
+import com.formation.service.ExportService;
+import com.formation.service.SparseFieldService;
+import com.formation.service.StudentImportService;
 import com.formation.service.StudentService;
+import com.formation.utils.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -50,6 +82,21 @@ public class StudentController {
     private StudentService studentService;
     @Autowired
     private CourseService courseService;
+    @Autowired
+    private StudentImportService studentImportService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private SparseFieldService sparseFieldService;
+
+    @Autowired
+    private SparseFormats sparseFormats;
+    @Autowired
+    @Qualifier("searchBulkhead")
+    private Bulkhead searchBulkhead;
+    @Autowired
+    @Qualifier("reportBulkhead")
+    private Bulkhead reportBulkhead;
 
     @Operation(summary = "Create a new student")
     @ApiResponses(value = {
@@ -76,17 +123,44 @@ public class StudentController {
         }
     }
 
+    @Operation(summary = "Import students from a CSV file",
+        description = "Header row with lastName,firstName,email,level. Rows are validated and committed "
+            + "in chunks, invalid rows are reported by line number and skipped.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected rows"),
+        @ApiResponse(responseCode = "400", description = "Missing or malformed CSV")
+    })
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<ImportReport> importStudents(InputStream body) {
+        try {
+            return ResponseEntity.ok(studentImportService.importCsv(
+                new InputStreamReader(body, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException | UncheckedIOException e) {
+            throw new ValidationException(ExceptionCode.INVALID_IMPORT_FILE, e.getMessage());
+        }
+    }
+
     @Operation(summary = "Get a student by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student found"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Student not found")
     })
     @GetMapping("/{id}")
+    @Limited(LimitGroup.LOOKUP)
     public ResponseEntity<Student> getStudentById(
             @Parameter(description = "ID of the student") 
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
         try {
-            return ResponseEntity.ok(studentService.findById(id));
+            String eTag = ETags.of(id, studentService.findVersionById(id));
+            if (ETags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                // The entity is never loaded
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            // The body may come from a cache that lags the version read above, tag it with its own
+            Student student = studentService.findById(id);
+            return ResponseEntity.ok().eTag(ETags.of(id, student.getVersion())).body(student);
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.STUDENT_NOT_FOUND, id);
         }
@@ -98,12 +172,16 @@ public class StudentController {
         @ApiResponse(responseCode = "204", description = "No students found")
     })
     @GetMapping
-    public ResponseEntity<Page<Student>> getAllStudents(
+    public ResponseEntity<Slice<StudentSummary>> getAllStudents(
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName", direction = Sort.Direction.ASC) 
             Pageable pageable) {
         try {
-            Page<Student> students = studentService.findAll(pageable);
+            Slice<StudentSummary> students = count 
+                ? studentService.findSummaries(pageable)
+                : studentService.findSummarySlice(pageable);
             return students.hasContent() 
                 ? ResponseEntity.ok(students)
                 : ResponseEntity.noContent().build();
@@ -112,25 +190,108 @@ public class StudentController {
         }
     }
 
+    @Operation(summary = "Get students with only the requested fields",
+        description = "Only the requested columns are selected and the rows are streamed as a slice without totals")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of students streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<StreamingResponseBody> getStudentsFields(
+            @Parameter(description = "Comma separated fields, e.g. id,lastName,email") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters") 
+            @PageableDefault(size = 10, sort = "lastName", direction = Sort.Direction.ASC) 
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept, (format, out) -> sparseFieldService.writeSlice(selection, pageable, format, out));
+    }
+
+    @Operation(summary = "Get students with keyset pagination ordered by lastName, id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of students retrieved successfully"),
+        @ApiResponse(responseCode = "204", description = "No more students"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Student>> getStudentsByCursor(
+            @Parameter(description = "Cursor returned with the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new ValidationException(ExceptionCode.INVALID_PAGE, "size=" + size);
+        }
+        CursorPage<Student> students = studentService.findAllAfter(cursor, size);
+        return students.hasContent() ? ResponseEntity.ok(students) : ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Export students as NDJSON or CSV",
+        description = "Rows are streamed from a database cursor, the response has no upper size limit")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format"),
+        @ApiResponse(responseCode = "404", description = "Course not found")
+    })
+    @GetMapping("/export")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @Parameter(description = "Output format, ndjson or csv") 
+            @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Only export the roster of this course") 
+            @RequestParam(required = false) Long courseId) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_EXPORT_FORMAT, format);
+        }
+        if (courseId != null) {
+            try {
+                courseService.findById(courseId);
+            } catch (Exception e) {
+                throw new ResourceNotFoundException(ExceptionCode.COURSE_NOT_FOUND, courseId);
+            }
+        }
+        StreamingResponseBody body = out -> exportService.exportStudents(courseId, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("students"))
+            .body(body);
+    }
+
     @Operation(summary = "Update a student")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Student updated successfully"),
         @ApiResponse(responseCode = "404", description = "Student not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Student> updateStudent(
             @Parameter(description = "ID of the student") 
             @PathVariable Long id,
+            @Parameter(description = "ETag of the version being replaced") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated student details") 
             @RequestBody Student student) {
         if (student == null) {
             throw new ValidationException(ExceptionCode.NULL_REQUEST);
         }
+        if (ifMatch != null && !ETags.isWildcard(ifMatch)) {
+            student.setVersion(ETags.versionOf(ifMatch, id)
+                .orElseThrow(() -> new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Student", id)));
+        }
         try {
             student.setId(id);
-            return ResponseEntity.ok(studentService.update(student));
+            Student updated = studentService.update(student);
+            return ResponseEntity.ok().eTag(ETags.of(id, updated.getVersion())).body(updated);
         } catch (Exception e) {
+            if (e instanceof OptimisticLockingFailureException) {
+                throw new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Student", id);
+            }
             if (e.getMessage().contains("not found")) {
                 throw new ResourceNotFoundException(ExceptionCode.STUDENT_NOT_FOUND, id);
             } else if (e.getMessage().contains("email already exists")) {
@@ -168,19 +329,49 @@ public class StudentController {
         @ApiResponse(responseCode = "204", description = "No matching students found")
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<Student>> searchStudents(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Slice<Student>>> searchStudents(
             @Parameter(description = "Search keyword") 
             @RequestParam String keyword,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
         if (keyword.trim().length() < 2) {
             throw new IllegalArgumentException("Search term must be at least 2 characters long");
         }
-        Page<Student> students = studentService.search(keyword, pageable);
-        return students.hasContent() 
-            ? ResponseEntity.ok(students)
-            : ResponseEntity.noContent().build();
-            
+        return searchBulkhead.submit(() -> {
+            Slice<Student> students = count 
+                ? studentService.search(keyword, pageable)
+                : studentService.searchSlice(keyword, pageable);
+            return students.hasContent() 
+                ? ResponseEntity.ok(students)
+                : ResponseEntity.noContent().build();
+        });
+    }
+
+    @Operation(summary = "Search students by keyword with only the requested fields")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of matching students streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field or search term too short")
+    })
+    @GetMapping(value = "/search", params = "fields")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> searchStudentsFields(
+            @Parameter(description = "Search keyword") 
+            @RequestParam String keyword,
+            @Parameter(description = "Comma separated fields") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters") 
+            @PageableDefault(size = 10, sort = "lastName") Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        if (keyword.trim().length() < 2) {
+            throw new IllegalArgumentException("Search term must be at least 2 characters long");
+        }
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept,
+            (format, out) -> sparseFieldService.writeStudentSearch(keyword, selection, pageable, format, out));
     }
 
     @Operation(summary = "Get students by level")
@@ -190,13 +381,17 @@ public class StudentController {
         @ApiResponse(responseCode = "400", description = "Invalid level")
     })
     @GetMapping("/level/{level}")
-    public ResponseEntity<Page<Student>> getStudentsByLevel(
+    public ResponseEntity<Slice<StudentSummary>> getStudentsByLevel(
             @Parameter(description = "Student level") 
             @PathVariable String level,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
         try {
-            Page<Student> students = studentService.findByLevel(level, pageable);
+            Slice<StudentSummary> students = count 
+                ? studentService.findSummariesByLevel(level, pageable)
+                : studentService.findSummarySliceByLevel(level, pageable);
             return students.hasContent() ? ResponseEntity.ok(students) : 
                 ResponseEntity.noContent().build();
         } catch (Exception e) {
@@ -210,13 +405,17 @@ public class StudentController {
         @ApiResponse(responseCode = "204", description = "No students found in this course")
     })
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<Page<Student>> getStudentsByCourse(
+    public ResponseEntity<Slice<StudentSummary>> getStudentsByCourse(
             @Parameter(description = "Course ID") 
             @PathVariable Long courseId,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
         try {
-            Page<Student> students = studentService.findByCourseId(courseId, pageable);
+            Slice<StudentSummary> students = count 
+                ? studentService.findSummariesByCourseId(courseId, pageable)
+                : studentService.findSummarySliceByCourseId(courseId, pageable);
             return students.hasContent() ? ResponseEntity.ok(students) : 
                 ResponseEntity.noContent().build();
         } catch (Exception e) {
@@ -230,13 +429,17 @@ public class StudentController {
         @ApiResponse(responseCode = "204", description = "No students found in this classroom")
     })
     @GetMapping("/classroom/{classRoomId}")
-    public ResponseEntity<Page<Student>> getStudentsByClassRoom(
+    public ResponseEntity<Slice<StudentSummary>> getStudentsByClassRoom(
             @Parameter(description = "Classroom ID") 
             @PathVariable Long classRoomId,
+            @Parameter(description = "Set to false to skip the total count query") 
+            @RequestParam(defaultValue = "true") boolean count,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
         try {
-            Page<Student> students = studentService.findByClassRoomId(classRoomId, pageable);
+            Slice<StudentSummary> students = count 
+                ? studentService.findSummariesByClassRoomId(classRoomId, pageable)
+                : studentService.findSummarySliceByClassRoomId(classRoomId, pageable);
             return students.hasContent() ? ResponseEntity.ok(students) : 
                 ResponseEntity.noContent().build();
         } catch (Exception e) {
@@ -250,7 +453,7 @@ public class StudentController {
         @ApiResponse(responseCode = "204", description = "No students found with these names")
     })
     @GetMapping("/name")
-    public ResponseEntity<Page<Student>> getStudentsByName(
+    public ResponseEntity<Page<StudentSummary>> getStudentsByName(
             @Parameter(description = "Student's last name") 
             @RequestParam String lastName,
             @Parameter(description = "Student's first name") 
@@ -263,7 +466,7 @@ public class StudentController {
                 lastName + " " + firstName);
         }
         try {
-            Page<Student> students = studentService.findByLastNameAndFirstName(
+            Page<StudentSummary> students = studentService.findSummariesByName(
                 lastName, firstName, pageable);
             return students.hasContent() 
                 ? ResponseEntity.ok(students)
@@ -281,7 +484,8 @@ public class StudentController {
         @ApiResponse(responseCode = "400", description = "Invalid date range")
     })
     @GetMapping("/date-range")
-    public ResponseEntity<Page<Course>> getCoursesByDateRange(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<CourseSummary>>> getCoursesByDateRange(
             @Parameter(description = "Start date (YYYY-MM-DD)", required = true) 
             @RequestParam LocalDate startDate,
             @Parameter(description = "End date (YYYY-MM-DD)", required = true) 
@@ -291,7 +495,26 @@ public class StudentController {
         if (startDate.isAfter(endDate)) {
             throw new ValidationException(ExceptionCode.INVALID_DATE_RANGE);
         }
-        Page<Course> courses = courseService.findByDateRange(startDate, endDate, pageable);
-        return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        return reportBulkhead.submit(() -> {
+            Page<CourseSummary> courses = courseService.findSummariesByDateRange(startDate, endDate, pageable);
+            return courses.hasContent() ? ResponseEntity.ok(courses) : ResponseEntity.noContent().build();
+        });
+    }
+
+    private static FieldSelection selectFields(String fields) {
+        try {
+            return FieldCatalog.STUDENTS.select(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_FIELDS, e.getMessage());
+        }
+    }
+
+    // Sparse slices are written in the negotiated encoding, like the full listings
+    private ResponseEntity<StreamingResponseBody> sparse(String accept, BiConsumer<JsonFactory, OutputStream> body)
+            throws HttpMediaTypeNotAcceptableException {
+        SparseFormats.Format format = sparseFormats.negotiate(accept);
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(out -> body.accept(format.getFactory(), out));
     }
 }
\ No newline at end of file
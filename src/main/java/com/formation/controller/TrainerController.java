@@ -1,12 +1,21 @@
 package com.formation.controller;
 
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,18 +23,35 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.formation.bulkhead.Bulkhead;
+import com.formation.dto.TrainerSummary;
 import com.formation.entity.Trainer;
 import com.formation.exception.DuplicateResourceException;
 import com.formation.exception.ExceptionCode;
+import com.formation.exception.PreconditionFailedException;
 import com.formation.exception.ResourceInUseException;
 import com.formation.exception.ResourceNotFoundException;
 import com.formation.exception.ValidationException;
+import com.formation.exports.ExportFormat;
+import com.formation.fields.FieldCatalog;
+import com.formation.fields.FieldSelection;
+import com.formation.fields.SparseFormats;
+import com.formation.limits.LimitGroup;
+import com.formation.limits.Limited;
+import com.formation.pagination.CursorPage;
+import com.formation.service.ExportService;
 import com.formation.service.TrainerService;
+import com.formation.service.SparseFieldService;
+import com.formation.utils.ETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -47,6 +73,18 @@ import javax.validation.constraints.NotBlank;
 public class TrainerController {
     @Autowired
     private TrainerService trainerService;
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private SparseFieldService sparseFieldService;
+    @Autowired
+    private SparseFormats sparseFormats;
+    @Autowired
+    @Qualifier("searchBulkhead")
+    private Bulkhead searchBulkhead;
+    @Autowired
+    @Qualifier("reportBulkhead")
+    private Bulkhead reportBulkhead;
 
     @Operation(summary = "Create a new trainer")
     @ApiResponses(value = {
@@ -72,14 +110,24 @@ public class TrainerController {
     @Operation(summary = "Get a trainer by ID")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Trainer found"),
+        @ApiResponse(responseCode = "304", description = "Not modified since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Trainer not found")
     })
     @GetMapping("/{id}")
+    @Limited(LimitGroup.LOOKUP)
     public ResponseEntity<Trainer> getTrainerById(
             @Parameter(description = "ID of the trainer") 
-            @PathVariable @Min(value = 1, message = "ID must be positive") Long id) {
+            @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            WebRequest request) {
         try {
-            return ResponseEntity.ok(trainerService.findById(id));
+            String eTag = ETags.of(id, trainerService.findVersionById(id));
+            if (ETags.matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+                // The entity is never loaded
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+            // The body may come from a cache that lags the version read above, tag it with its own
+            Trainer trainer = trainerService.findById(id);
+            return ResponseEntity.ok().eTag(ETags.of(id, trainer.getVersion())).body(trainer);
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.TRAINER_NOT_FOUND, id);
         }
@@ -91,35 +139,108 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No trainers found")
     })
     @GetMapping
-    public ResponseEntity<Page<Trainer>> getAllTrainers(
+    public ResponseEntity<Page<TrainerSummary>> getAllTrainers(
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName", direction = Sort.Direction.ASC) 
             Pageable pageable) {
-        Page<Trainer> trainers = trainerService.findAll(pageable);
+        Page<TrainerSummary> trainers = trainerService.findSummaries(pageable);
         return trainers.hasContent() 
             ? ResponseEntity.ok(trainers)
             : ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Get trainers with only the requested fields",
+        description = "Only the requested columns are selected and the rows are streamed as a slice without totals")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of trainers streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field")
+    })
+    @GetMapping(params = "fields")
+    public ResponseEntity<StreamingResponseBody> getTrainersFields(
+            @Parameter(description = "Comma separated fields, e.g. id,lastName,specialty") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters") 
+            @PageableDefault(size = 10, sort = "lastName", direction = Sort.Direction.ASC) 
+            Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept, (format, out) -> sparseFieldService.writeSlice(selection, pageable, format, out));
+    }
+
+    @Operation(summary = "Get trainers with keyset pagination ordered by lastName, id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of trainers retrieved successfully"),
+        @ApiResponse(responseCode = "204", description = "No more trainers"),
+        @ApiResponse(responseCode = "400", description = "Invalid cursor or page size")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Trainer>> getTrainersByCursor(
+            @Parameter(description = "Cursor returned with the previous page, omit for the first page") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") 
+            @RequestParam(defaultValue = "10") int size) {
+        if (size < 1 || size > CursorPage.MAX_SIZE) {
+            throw new ValidationException(ExceptionCode.INVALID_PAGE, "size=" + size);
+        }
+        CursorPage<Trainer> trainers = trainerService.findAllAfter(cursor, size);
+        return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
+    }
+
+    @Operation(summary = "Export trainers as NDJSON or CSV",
+        description = "Rows are streamed from a database cursor, the response has no upper size limit")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export streamed"),
+        @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    @GetMapping("/export")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> exportTrainers(
+            @Parameter(description = "Output format, ndjson or csv") 
+            @RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_EXPORT_FORMAT, format);
+        }
+        StreamingResponseBody body = out -> exportService.exportTrainers(exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, exportFormat.attachment("trainers"))
+            .body(body);
+    }
+
     @Operation(summary = "Update a trainer")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Trainer updated successfully"),
         @ApiResponse(responseCode = "404", description = "Trainer not found"),
+        @ApiResponse(responseCode = "412", description = "If-Match does not match the current version"),
         @ApiResponse(responseCode = "400", description = "Invalid input")
     })
     @PutMapping("/{id}")
     public ResponseEntity<Trainer> updateTrainer(
             @Parameter(description = "ID of the trainer to update") 
             @PathVariable @Min(value = 1, message = "ID must be positive") Long id,
+            @Parameter(description = "ETag of the version being replaced") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated trainer details") 
             @Valid @RequestBody(required = true) Trainer trainer) {
         if (trainer == null) {
             throw new ValidationException(ExceptionCode.NULL_REQUEST);
         }
+        if (ifMatch != null && !ETags.isWildcard(ifMatch)) {
+            trainer.setVersion(ETags.versionOf(ifMatch, id)
+                .orElseThrow(() -> new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Trainer", id)));
+        }
         try {
             trainer.setId(id);
-            return ResponseEntity.ok(trainerService.update(trainer));
+            Trainer updated = trainerService.update(trainer);
+            return ResponseEntity.ok().eTag(ETags.of(id, updated.getVersion())).body(updated);
         } catch (Exception e) {
+            if (e instanceof OptimisticLockingFailureException) {
+                throw new PreconditionFailedException(ExceptionCode.VERSION_MISMATCH, "Trainer", id);
+            }
             if (e.getMessage().contains("not found")) {
                 throw new ResourceNotFoundException(ExceptionCode.TRAINER_NOT_FOUND, id);
             }
@@ -154,7 +275,8 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No matching trainers found")
     })
     @GetMapping("/search")
-    public ResponseEntity<Page<Trainer>> searchTrainers(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<TrainerSummary>>> searchTrainers(
             @Parameter(description = "Search keyword") 
             @RequestParam @NotBlank(message = "Search keyword cannot be empty") String keyword,
             @Parameter(description = "Pagination parameters") 
@@ -162,8 +284,34 @@ public class TrainerController {
         if (keyword.trim().length() < 2) {
             throw new ValidationException(ExceptionCode.INVALID_SEARCH, 2);
         }
-        Page<Trainer> trainers = trainerService.search(keyword, pageable);
-        return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
+        return searchBulkhead.submit(() -> {
+            Page<TrainerSummary> trainers = trainerService.searchSummaries(keyword, pageable);
+            return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
+        });
+    }
+
+    @Operation(summary = "Search trainers by keyword with only the requested fields")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Slice of matching trainers streamed"),
+        @ApiResponse(responseCode = "400", description = "Unknown field or search term too short")
+    })
+    @GetMapping(value = "/search", params = "fields")
+    @Limited(LimitGroup.SCAN)
+    public ResponseEntity<StreamingResponseBody> searchTrainersFields(
+            @Parameter(description = "Search keyword") 
+            @RequestParam @NotBlank(message = "Search keyword cannot be empty") String keyword,
+            @Parameter(description = "Comma separated fields") 
+            @RequestParam String fields,
+            @Parameter(description = "Pagination parameters") 
+            @PageableDefault(size = 10, sort = "lastName") Pageable pageable,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept)
+            throws HttpMediaTypeNotAcceptableException {
+        if (keyword.trim().length() < 2) {
+            throw new ValidationException(ExceptionCode.INVALID_SEARCH, 2);
+        }
+        FieldSelection selection = selectFields(fields);
+        return sparse(accept,
+            (format, out) -> sparseFieldService.writeTrainerSearch(keyword, selection, pageable, format, out));
     }
 
     @Operation(summary = "Get trainers by email")
@@ -172,7 +320,7 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No trainers found with this email")
     })
     @GetMapping("/email/{email}")
-    public ResponseEntity<Page<Trainer>> getTrainersByEmail(
+    public ResponseEntity<Page<TrainerSummary>> getTrainersByEmail(
             @Parameter(description = "Trainer's email") 
             @PathVariable @Email(message = "Invalid email format") String email,
             @Parameter(description = "Pagination parameters") 
@@ -180,7 +328,7 @@ public class TrainerController {
         if (!email.matches("^[A-Za-z0-9+_.-]+@(.+)$")) {
             throw new ValidationException(ExceptionCode.INVALID_EMAIL, email);
         }
-        Page<Trainer> trainers = trainerService.findByEmail(email, pageable);
+        Page<TrainerSummary> trainers = trainerService.findSummariesByEmail(email, pageable);
         return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
     }
 
@@ -190,12 +338,12 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No trainers found with this specialty")
     })
     @GetMapping("/specialty/{specialty}")
-    public ResponseEntity<Page<Trainer>> getTrainersBySpecialty(
+    public ResponseEntity<Page<TrainerSummary>> getTrainersBySpecialty(
             @Parameter(description = "Trainer's specialty") 
             @PathVariable @NotBlank(message = "Specialty cannot be empty") String specialty,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
-        Page<Trainer> trainers = trainerService.findBySpecialty(specialty, pageable);
+        Page<TrainerSummary> trainers = trainerService.findSummariesBySpecialty(specialty, pageable);
         return trainers.hasContent() 
             ? ResponseEntity.ok(trainers)
             : ResponseEntity.noContent().build();
@@ -207,14 +355,14 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No trainers found with these names")
     })
     @GetMapping("/name")
-    public ResponseEntity<Page<Trainer>> getTrainersByName(
+    public ResponseEntity<Page<TrainerSummary>> getTrainersByName(
             @Parameter(description = "Trainer's last name") 
             @RequestParam @NotBlank(message = "Last name cannot be empty") String lastName,
             @Parameter(description = "Trainer's first name") 
             @RequestParam @NotBlank(message = "First name cannot be empty") String firstName,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
-        Page<Trainer> trainers = trainerService.findByLastNameAndFirstName(lastName, firstName, pageable);
+        Page<TrainerSummary> trainers = trainerService.findSummariesByName(lastName, firstName, pageable);
         return trainers.hasContent() 
             ? ResponseEntity.ok(trainers)
             : ResponseEntity.noContent().build();
@@ -226,13 +374,13 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No trainers found in this classroom")
     })
     @GetMapping("/classroom/{classRoomId}")
-    public ResponseEntity<Page<Trainer>> getTrainersByClassRoom(
+    public ResponseEntity<Page<TrainerSummary>> getTrainersByClassRoom(
             @Parameter(description = "Classroom ID") 
             @PathVariable @Min(value = 1, message = "Classroom ID must be positive") Long classRoomId,
             @Parameter(description = "Pagination parameters") 
             @PageableDefault(size = 10, sort = "lastName") Pageable pageable) {
         try {
-            Page<Trainer> trainers = trainerService.findByClassRoomId(classRoomId, pageable);
+            Page<TrainerSummary> trainers = trainerService.findSummariesByClassRoomId(classRoomId, pageable);
             return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
         } catch (Exception e) {
             throw new ResourceNotFoundException(ExceptionCode.CLASSROOM_NOT_FOUND, classRoomId);
@@ -245,7 +393,8 @@ public class TrainerController {
         @ApiResponse(responseCode = "204", description = "No available trainers found")
     })
     @GetMapping("/available")
-    public ResponseEntity<Page<Trainer>> getAvailableTrainers(
+    @Limited(LimitGroup.SCAN)
+    public CompletableFuture<ResponseEntity<Page<TrainerSummary>>> getAvailableTrainers(
             @Parameter(description = "Maximum number of courses") 
             @RequestParam @Min(value = 0, message = "Max courses cannot be negative") int maxCourses,
             @Parameter(description = "Pagination parameters") 
@@ -253,8 +402,26 @@ public class TrainerController {
         if (maxCourses < 0) {
             throw new ValidationException(ExceptionCode.INVALID_CAPACITY, 0, Integer.MAX_VALUE);
         }
-        Page<Trainer> trainers = trainerService.findAvailableTrainers(maxCourses, pageable);
-        return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
+        return reportBulkhead.submit(() -> {
+            Page<TrainerSummary> trainers = trainerService.findAvailableSummaries(maxCourses, pageable);
+            return trainers.hasContent() ? ResponseEntity.ok(trainers) : ResponseEntity.noContent().build();
+        });
+    }
+
+    private static FieldSelection selectFields(String fields) {
+        try {
+            return FieldCatalog.TRAINERS.select(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_FIELDS, e.getMessage());
+        }
     }
 
+    // Sparse slices are written in the negotiated encoding, like the full listings
+    private ResponseEntity<StreamingResponseBody> sparse(String accept, BiConsumer<JsonFactory, OutputStream> body)
+            throws HttpMediaTypeNotAcceptableException {
+        SparseFormats.Format format = sparseFormats.negotiate(accept);
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .body(out -> body.accept(format.getFactory(), out));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package com.formation.dto;
+
+import java.time.LocalDate;
+
+import com.formation.entity.enums.CourseStatus;
+
+import lombok.Value;
+
+/**
+ * Course row of the list endpoints, selected column by column together with the trainer's name.
+ */
+@Value
+public class CourseSummary {
+    Long id;
+    String title;
+    String level;
+    String prerequisites;
+    int minCapacity;
+    int maxCapacity;
+    int currentCapacity;
+    LocalDate startDate;
+    LocalDate endDate;
+    CourseStatus status;
+    Long version;
+    Long trainerId;
+    String trainerFirstName;
+    String trainerLastName;
+}
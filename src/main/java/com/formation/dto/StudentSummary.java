@@ -0,0 +1,21 @@
+package com.formation.dto;
+
+import lombok.Value;
+
+/**
+ * Student row of the list endpoints, selected column by column together with the title of the
+ * course and the room number of the classroom.
+ */
+@Value
+public class StudentSummary {
+    Long id;
+    String lastName;
+    String firstName;
+    String email;
+    String level;
+    Long version;
+    Long courseId;
+    String courseTitle;
+    Long classRoomId;
+    String classRoomNumber;
+}
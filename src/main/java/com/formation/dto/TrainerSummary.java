@@ -0,0 +1,19 @@
+package com.formation.dto;
+
+import lombok.Value;
+
+/**
+ * Trainer row of the list endpoints, selected column by column together with the room number of
+ * the classroom.
+ */
+@Value
+public class TrainerSummary {
+    Long id;
+    String lastName;
+    String firstName;
+    String email;
+    String specialty;
+    Long version;
+    Long classRoomId;
+    String classRoomNumber;
+}
@@ -4,6 +4,9 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,8 +21,11 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Builder
@@ -27,11 +33,15 @@ import lombok.ToString;
 @AllArgsConstructor
 @ToString(exclude = {"students", "trainers"})
 @EqualsAndHashCode(of = {"id", "roomNumber"})
-@Table(name = "classrooms")
+@Table(name = "classrooms", indexes = {
+    @Index(name = "idx_classrooms_current_capacity", columnList = "currentCapacity, id"),
+    @Index(name = "idx_classrooms_trainer_count", columnList = "trainerCount, id")
+})
 public class ClassRoom {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "classrooms_seq")
+    @SequenceGenerator(name = "classrooms_seq", sequenceName = "classrooms_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Name is required")
@@ -45,10 +55,15 @@ public class ClassRoom {
     private String roomNumber;
     
     @Min(value = 0, message = "Current capacity cannot be negative")
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     @Builder.Default
     private Integer currentCapacity = 0;
     
+    @Min(value = 0, message = "Trainer count cannot be negative")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
+    @Builder.Default
+    private Integer trainerCount = 0;
+    
     @Min(value = 1, message = "Maximum capacity must be at least 1")
     @Column(nullable = false)
     @Builder.Default
@@ -62,11 +77,20 @@ public class ClassRoom {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock, exposed to clients as the ETag and checked against If-Match on updates
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @OneToMany(mappedBy = "classRoom", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private Set<Student> students = new HashSet<>();
     
     @OneToMany(mappedBy = "classRoom", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private Set<Trainer> trainers = new HashSet<>();
     
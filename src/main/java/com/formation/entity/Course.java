@@ -7,9 +7,11 @@ import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import com.formation.entity.enums.CourseStatus;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Getter
@@ -19,11 +21,18 @@ import com.formation.entity.enums.CourseStatus;
 @AllArgsConstructor
 @ToString(exclude = {"trainer", "students"})
 @EqualsAndHashCode(of = {"id", "title"})
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+    @Index(name = "idx_courses_start_date_id", columnList = "startDate DESC, id DESC"),
+    @Index(name = "idx_courses_start_date_end_date", columnList = "startDate, endDate"),
+    @Index(name = "idx_courses_status_start_date", columnList = "status, startDate"),
+    @Index(name = "idx_courses_trainer_id", columnList = "trainer_id"),
+    @Index(name = "idx_courses_capacity_range", columnList = "minCapacity, maxCapacity")
+})
 public class Course {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Title is required")
@@ -49,7 +58,7 @@ public class Course {
     private int maxCapacity;
     
     @Builder.Default
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private int currentCapacity = 0;
     
     @NotNull(message = "Start date is required")
@@ -73,6 +82,13 @@ public class Course {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock, exposed to clients as the ETag and checked against If-Match on updates
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "trainer_id")
     private Trainer trainer;
@@ -7,9 +7,12 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
@@ -20,8 +23,10 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Data
@@ -30,11 +35,17 @@ import org.hibernate.annotations.UpdateTimestamp;
 @AllArgsConstructor
 @ToString(exclude = {"course", "classRoom"})
 @EqualsAndHashCode(of = {"id", "email"})
-@Table(name = "students")
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_last_name_id", columnList = "lastName, id"),
+    @Index(name = "idx_students_last_name_first_name", columnList = "lastName, firstName"),
+    @Index(name = "idx_students_course_id", columnList = "course_id"),
+    @Index(name = "idx_students_classroom_id", columnList = "classroom_id")
+})
 public class Student {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Last name is required")
@@ -68,6 +79,13 @@ public class Student {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock, exposed to clients as the ETag and checked against If-Match on updates
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
     private Course course;
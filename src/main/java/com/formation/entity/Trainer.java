@@ -6,10 +6,16 @@ import java.util.Set;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Getter
 @Setter
 @Builder
@@ -17,11 +23,16 @@ import org.hibernate.annotations.UpdateTimestamp;
 @AllArgsConstructor
 @ToString(exclude = {"courses", "classRoom"})
 @EqualsAndHashCode(of = {"id", "email"})
-@Table(name = "trainers")
+@Table(name = "trainers", indexes = {
+    @Index(name = "idx_trainers_last_name_id", columnList = "lastName, id"),
+    @Index(name = "idx_trainers_last_name_first_name", columnList = "lastName, firstName"),
+    @Index(name = "idx_trainers_classroom_id", columnList = "classroom_id")
+})
 public class Trainer {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainers_seq")
+    @SequenceGenerator(name = "trainers_seq", sequenceName = "trainers_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Last name is required")
@@ -55,7 +66,15 @@ public class Trainer {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Optimistic lock, exposed to clients as the ETag and checked against If-Match on updates
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @OneToMany(mappedBy = "trainer", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Builder.Default
     private Set<Course> courses = new HashSet<>();
     
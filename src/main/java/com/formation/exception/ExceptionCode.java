@@ -32,6 +32,7 @@ public enum ExceptionCode {
     STUDENT_DUPLICATE_ENROLLMENT("STD-409-D", "Student already enrolled in another course"),
     STUDENT_CLASSROOM_FULL("STD-409-F", "Selected classroom is at full capacity"),
     STUDENT_SEARCH_FAILED("STD-400-S", "Failed to search students: %s"),
+    STUDENT_NOT_ENROLLED("STD-404-E", "Student %s is not enrolled in course %s"),
 
     // Course related codes
     COURSE_NOT_FOUND("CRS-404", "Course not found with id: %s"),
@@ -43,6 +44,7 @@ public enum ExceptionCode {
     COURSE_SCHEDULE_CONFLICT("CRS-409-S", "Schedule conflict with existing course: %s"),
     COURSE_INVALID_DURATION("CRS-400-T", "Course duration must be between %d and %d days"),
     COURSE_REGISTRATION_CLOSED("CRS-409-R", "Course registration period has ended"),
+    COURSE_FULL("CRS-409-F", "Course is at full capacity: %s"),
     
     // Trainer related codes
     TRAINER_NOT_FOUND("TRN-404", "Trainer not found with id: %s"),
@@ -64,11 +66,17 @@ public enum ExceptionCode {
     INVALID_DATE_RANGE("VAL-400-D", "Start date must be before end date"),
     INVALID_CAPACITY("VAL-400-C", "Capacity must be between %d and %d"),
     INVALID_PAGE("VAL-400-P", "Invalid pagination parameters: %s"),
+    INVALID_CURSOR("VAL-400-K", "Invalid pagination cursor: %s"),
+    INVALID_IMPORT_FILE("VAL-400-F", "Invalid import file: %s"),
+    INVALID_EXPORT_FORMAT("VAL-400-X", "Unsupported export format: %s, expected ndjson or csv"),
+    INVALID_FIELDS("VAL-400-I", "Invalid field selection: %s"),
     INVALID_PHONE_FORMAT("VAL-400-P", "Invalid phone number format: %s"),
     INVALID_TIME_SLOT("VAL-400-T", "Invalid time slot format or range"),
     INVALID_DOCUMENT_FORMAT("VAL-400-D", "Invalid document format: %s"),
     DUPLICATE_ENTRY("VAL-409", "Duplicate entry found for: %s"),
-    RESOURCE_LOCKED("VAL-423", "Resource is currently locked: %s");
+    VERSION_MISMATCH("VAL-412", "%s %s was modified since it was read, fetch it again for a fresh ETag"),
+    RESOURCE_LOCKED("VAL-423", "Resource is currently locked: %s"),
+    SERVER_OVERLOADED("SRV-503", "Too many concurrent %s requests, retry in %d seconds");
 
     private final String code;
     private final String messageTemplate;
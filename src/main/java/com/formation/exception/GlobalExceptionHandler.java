@@ -1,6 +1,7 @@
 package com.formation.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -26,6 +27,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, status);
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getCode().getCode(),
+            ex.getMessage(),
+            request.getDescription(false)
+        );
+        // Shed requests come in bursts, keep them out of the error log
+        log.debug("Request shed: {}", errorResponse);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorResponse> handleValidationException(
             ConstraintViolationException ex, WebRequest request) {
@@ -43,6 +59,8 @@ public class GlobalExceptionHandler {
         if (ex instanceof DuplicateResourceException) return HttpStatus.CONFLICT;
         if (ex instanceof ResourceInUseException) return HttpStatus.CONFLICT;
         if (ex instanceof ValidationException) return HttpStatus.BAD_REQUEST;
+        if (ex instanceof PreconditionFailedException) return HttpStatus.PRECONDITION_FAILED;
+        if (ex instanceof ServiceUnavailableException) return HttpStatus.SERVICE_UNAVAILABLE;
         return HttpStatus.INTERNAL_SERVER_ERROR;
     }
 }
\ No newline at end of file
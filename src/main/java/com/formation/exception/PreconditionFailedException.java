@@ -0,0 +1,11 @@
+package com.formation.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends BaseException {
+    public PreconditionFailedException(ExceptionCode code, Object... args) {
+        super(code, args);
+    }
+}
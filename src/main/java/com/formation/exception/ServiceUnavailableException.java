@@ -0,0 +1,16 @@
+package com.formation.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends BaseException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(long retryAfterSeconds, ExceptionCode code, Object... args) {
+        super(code, args);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,89 @@
+package com.formation.exports;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes flat rows as NDJSON or CSV. Nothing is kept per row, output is buffered and pushed
+ * to the stream as the buffer fills. Closing flushes but leaves the stream open.
+ */
+public class ExportWriter implements Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory()
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final String[] columns;
+    private final Writer writer;
+    private final JsonGenerator json;
+
+    public ExportWriter(OutputStream out, ExportFormat format, String... columns) throws IOException {
+        this.columns = columns;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            this.json = JSON.createGenerator(writer);
+            this.json.setRootValueSeparator(null);
+        } else {
+            this.json = null;
+            csvLine(columns);
+        }
+    }
+
+    public void row(Object... values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+        }
+        if (json == null) {
+            csvLine(values);
+            return;
+        }
+        json.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            json.writeFieldName(columns[i]);
+            Object value = values[i];
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Number) {
+                json.writeNumber(value.toString());
+            } else {
+                json.writeString(value.toString());
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void csvLine(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(csvField(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
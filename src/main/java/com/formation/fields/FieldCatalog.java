@@ -0,0 +1,98 @@
+package com.formation.fields;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.Trainer;
+
+/**
+ * Fields a client may request with {@code ?fields=}, mapped to the attribute path selected for each.
+ * Paths through a to-one association are read from a left join, except the association id which
+ * comes from the foreign key column.
+ */
+public enum FieldCatalog {
+
+    STUDENTS(Student.class,
+        "id", "id",
+        "lastName", "lastName",
+        "firstName", "firstName",
+        "email", "email",
+        "level", "level",
+        "registrationDate", "registrationDate",
+        "version", "version",
+        "courseId", "course.id",
+        "courseTitle", "course.title",
+        "classRoomId", "classRoom.id",
+        "classRoomNumber", "classRoom.roomNumber"),
+
+    COURSES(Course.class,
+        "id", "id",
+        "title", "title",
+        "level", "level",
+        "prerequisites", "prerequisites",
+        "minCapacity", "minCapacity",
+        "maxCapacity", "maxCapacity",
+        "currentCapacity", "currentCapacity",
+        "startDate", "startDate",
+        "endDate", "endDate",
+        "status", "status",
+        "version", "version",
+        "trainerId", "trainer.id",
+        "trainerFirstName", "trainer.firstName",
+        "trainerLastName", "trainer.lastName"),
+
+    TRAINERS(Trainer.class,
+        "id", "id",
+        "lastName", "lastName",
+        "firstName", "firstName",
+        "email", "email",
+        "specialty", "specialty",
+        "version", "version",
+        "classRoomId", "classRoom.id",
+        "classRoomNumber", "classRoom.roomNumber");
+
+    private final Class<?> entityType;
+    private final Map<String, String> paths = new LinkedHashMap<>();
+
+    FieldCatalog(Class<?> entityType, String... fieldsAndPaths) {
+        this.entityType = entityType;
+        for (int i = 0; i < fieldsAndPaths.length; i += 2) {
+            paths.put(fieldsAndPaths[i], fieldsAndPaths[i + 1]);
+        }
+    }
+
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    /**
+     * Parses a comma separated field list, keeping the requested order and dropping repeats.
+     *
+     * @throws IllegalArgumentException when the list is empty or names an unknown field
+     */
+    public FieldSelection select(String fields) {
+        List<String> names = new ArrayList<>();
+        List<String> selected = new ArrayList<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty() || names.contains(name)) {
+                continue;
+            }
+            String path = paths.get(name);
+            if (path == null) {
+                throw new IllegalArgumentException("unknown field " + name + ", expected any of " + paths.keySet());
+            }
+            names.add(name);
+            selected.add(path);
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("no fields requested, expected any of " + paths.keySet());
+        }
+        return new FieldSelection(this, Collections.unmodifiableList(names), Collections.unmodifiableList(selected));
+    }
+}
@@ -0,0 +1,16 @@
+package com.formation.fields;
+
+import java.util.List;
+
+import lombok.Value;
+
+/**
+ * Validated {@code ?fields=} request, the names as written to the response and the attribute
+ * paths to select, in the same order.
+ */
+@Value
+public class FieldSelection {
+    FieldCatalog catalog;
+    List<String> names;
+    List<String> paths;
+}
@@ -0,0 +1,72 @@
+package com.formation.fields;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+import lombok.Value;
+
+/**
+ * Chooses the encoding of a {@code ?fields=} response from the Accept header, among the same Jackson
+ * converters that write the full listings. JSON comes first, so it is the answer to a missing or
+ * wildcard Accept.
+ */
+@Component
+public class SparseFormats {
+
+    @Value
+    public static class Format {
+        MediaType mediaType;
+        JsonFactory factory;
+    }
+
+    private final List<Format> formats;
+
+    @Autowired
+    public SparseFormats(MappingJackson2HttpMessageConverter json, MappingJackson2CborHttpMessageConverter cbor,
+            MappingJackson2SmileHttpMessageConverter smile) {
+        this.formats = Arrays.asList(format(MediaType.APPLICATION_JSON, json), format(MediaType.APPLICATION_CBOR, cbor),
+            format(smile.getSupportedMediaTypes().get(0), smile));
+    }
+
+    public Format negotiate(String accept) throws HttpMediaTypeNotAcceptableException {
+        List<MediaType> accepted;
+        try {
+            accepted = StringUtils.hasText(accept) ? new ArrayList<>(MediaType.parseMediaTypes(accept))
+                : new ArrayList<>(Arrays.asList(MediaType.ALL));
+        } catch (InvalidMediaTypeException e) {
+            throw new HttpMediaTypeNotAcceptableException(e.getMessage());
+        }
+        MediaType.sortBySpecificityAndQuality(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (Format format : formats) {
+                if (type.isCompatibleWith(format.getMediaType())) {
+                    return format;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(
+            formats.stream().map(Format::getMediaType).collect(Collectors.toList()));
+    }
+
+    private static Format format(MediaType mediaType, AbstractJackson2HttpMessageConverter converter) {
+        return new Format(mediaType, converter.getObjectMapper().getFactory());
+    }
+}
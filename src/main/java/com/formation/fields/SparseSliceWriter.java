@@ -0,0 +1,53 @@
+package com.formation.fields;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes a slice of sparse rows while they are read, in the same envelope as
+ * {@link com.formation.pagination.PageEnvelopeSerializer}: the rows under {@code items}, then the
+ * page number, size and whether another slice follows. The factory picks the encoding, JSON, CBOR
+ * or Smile, and its codec writes the values the way the full listings do.
+ */
+public class SparseSliceWriter implements Closeable {
+
+    private final List<String> fields;
+    private final JsonGenerator json;
+
+    public SparseSliceWriter(JsonFactory factory, OutputStream out, List<String> fields) throws IOException {
+        this.fields = fields;
+        this.json = factory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.writeStartObject();
+        json.writeArrayFieldStart("items");
+    }
+
+    public void row(Object... values) throws IOException {
+        if (values.length != fields.size()) {
+            throw new IllegalArgumentException("Expected " + fields.size() + " values but got " + values.length);
+        }
+        json.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            json.writeFieldName(fields.get(i));
+            json.writeObject(values[i]);
+        }
+        json.writeEndObject();
+    }
+
+    public void finish(int number, int size, boolean hasNext) throws IOException {
+        json.writeEndArray();
+        json.writeNumberField("page", number);
+        json.writeNumberField("size", size);
+        json.writeBooleanField("hasNext", hasNext);
+        json.writeEndObject();
+    }
+
+    @Override
+    public void close() throws IOException {
+        json.close();
+    }
+}
@@ -0,0 +1,38 @@
+package com.formation.imports;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+public class ImportReport {
+
+    private int totalRows;
+    private int imported;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public void rowRead() {
+        totalRows++;
+    }
+
+    public void imported(int count) {
+        imported += count;
+    }
+
+    public void reject(long line, String message) {
+        errors.add(new RowError(line, message));
+    }
+
+    public int getRejected() {
+        return errors.size();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private final long line;
+        private final String message;
+    }
+}
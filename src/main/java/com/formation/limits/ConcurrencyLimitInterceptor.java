@@ -0,0 +1,88 @@
+package com.formation.limits;
+
+import java.util.concurrent.CompletionStage;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import com.formation.exception.ExceptionCode;
+import com.formation.exception.ServiceUnavailableException;
+
+/**
+ * Admits controller calls against the limit of their {@link LimitGroup} and rejects the excess at once
+ * with 503 and Retry-After instead of queueing it behind the connection pool.
+ */
+@Component
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final ConcurrencyLimits limits;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitInterceptor(ConcurrencyLimits limits,
+            @Value("${formation.limits.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.limits = limits;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async redispatches already hold the permit taken by the original request
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        LimitGroup group = groupOf((HandlerMethod) handler);
+        ConcurrencyLimiter.Permit permit = limits.get(group).tryAcquire()
+            .orElseThrow(() -> new ServiceUnavailableException(retryAfterSeconds,
+                ExceptionCode.SERVER_OVERLOADED, group.name().toLowerCase(), retryAfterSeconds));
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        // Futures keep their permit until the async dispatch completes, streamed responses run for as long
+        // as the client reads and their duration is not a latency sample
+        if (handler instanceof HandlerMethod
+                && CompletionStage.class.isAssignableFrom(((HandlerMethod) handler).getReturnType().getParameterType())) {
+            return;
+        }
+        ConcurrencyLimiter.Permit permit = takePermit(request);
+        if (permit != null) {
+            permit.onIgnore();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        ConcurrencyLimiter.Permit permit = takePermit(request);
+        if (permit == null) {
+            return;
+        }
+        if (ex == null && response.getStatus() < 500) {
+            permit.onSuccess();
+        } else {
+            permit.onDropped();
+        }
+    }
+
+    private static ConcurrencyLimiter.Permit takePermit(HttpServletRequest request) {
+        ConcurrencyLimiter.Permit permit = (ConcurrencyLimiter.Permit) request.getAttribute(PERMIT_ATTRIBUTE);
+        request.removeAttribute(PERMIT_ATTRIBUTE);
+        return permit;
+    }
+
+    private static LimitGroup groupOf(HandlerMethod handler) {
+        Limited limited = handler.getMethodAnnotation(Limited.class);
+        return limited != null ? limited.value() : LimitGroup.DEFAULT;
+    }
+}
@@ -0,0 +1,80 @@
+package com.formation.limits;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits a request while fewer than the current adaptive limit are in flight, never queues.
+ */
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public ConcurrencyLimiter(LimitGroup group) {
+        this(new GradientLimit(group.getInitialLimit(), group.getMinLimit(), group.getMaxLimit()));
+    }
+
+    ConcurrencyLimiter(GradientLimit limit) {
+        this.limit = limit;
+    }
+
+    public Optional<Permit> tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                return Optional.empty();
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return Optional.of(new Permit(current + 1));
+            }
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * One admitted request, released exactly once by whichever outcome comes first.
+     */
+    public class Permit {
+
+        private final long start = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            if (release()) {
+                limit.onSample(System.nanoTime() - start, inFlightAtStart);
+            }
+        }
+
+        public void onDropped() {
+            if (release()) {
+                limit.onDrop();
+            }
+        }
+
+        public void onIgnore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.formation.limits;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * One adaptive limiter per {@link LimitGroup}, shared by every request of the group.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final Map<LimitGroup, ConcurrencyLimiter> limiters = new EnumMap<>(LimitGroup.class);
+
+    public ConcurrencyLimits() {
+        for (LimitGroup group : LimitGroup.values()) {
+            limiters.put(group, new ConcurrencyLimiter(group));
+        }
+    }
+
+    public ConcurrencyLimiter get(LimitGroup group) {
+        return limiters.get(group);
+    }
+}
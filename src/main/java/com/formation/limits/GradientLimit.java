@@ -0,0 +1,60 @@
+package com.formation.limits;
+
+/**
+ * Concurrency limit estimated from latency, after the gradient algorithm of Netflix's
+ * concurrency-limits. A long-term average RTT serves as the no-load baseline, while the short-term
+ * average rises above it the limit shrinks by their ratio, otherwise it grows by a queue allowance of
+ * sqrt(limit). Drops (timeouts, server errors) back the limit off multiplicatively.
+ */
+class GradientLimit {
+
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = initialLimit;
+    }
+
+    int getLimit() {
+        return (int) limit;
+    }
+
+    synchronized void onSample(long rttNanos, int inFlight) {
+        shortRtt = average(shortRtt, rttNanos, SHORT_WINDOW);
+        longRtt = average(longRtt, rttNanos, LONG_WINDOW);
+        // A baseline far above current latency is stale, let it catch up quickly after a slow period
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        // Requests are not queuing, latency says nothing about the limit
+        if (inFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+        double next = limit * gradient + Math.sqrt(limit);
+        limit = clamp(limit * (1 - SMOOTHING) + next * SMOOTHING);
+    }
+
+    synchronized void onDrop() {
+        limit = clamp(limit * BACKOFF);
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    private static double average(double current, long sample, int window) {
+        return current == 0 ? sample : current + (sample - current) * 2 / (window + 1);
+    }
+}
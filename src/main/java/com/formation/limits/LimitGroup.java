@@ -0,0 +1,33 @@
+package com.formation.limits;
+
+/**
+ * Endpoints sharing one adaptive concurrency limit. Cheap lookups and expensive scans are limited
+ * separately so a burst of scans cannot starve the lookups.
+ */
+public enum LimitGroup {
+    LOOKUP(100, 4, 400),
+    SCAN(10, 2, 50),
+    DEFAULT(50, 4, 200);
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+
+    LimitGroup(int initialLimit, int minLimit, int maxLimit) {
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+}
@@ -0,0 +1,15 @@
+package com.formation.limits;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a controller method in a {@link LimitGroup}, unannotated handlers fall in {@link LimitGroup#DEFAULT}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Limited {
+    LimitGroup value();
+}
@@ -0,0 +1,55 @@
+package com.formation.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.formation.exception.ExceptionCode;
+import com.formation.exception.ValidationException;
+
+import lombok.Getter;
+
+/**
+ * Opaque keyset position: the sort key and id of the last row of a page,
+ * encoded as URL-safe base64 so clients cannot depend on its layout.
+ */
+@Getter
+public class Cursor {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final String key;
+    private final Long id;
+
+    private Cursor(String key, Long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public LocalDate getDateKey() {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new ValidationException(ExceptionCode.INVALID_CURSOR, key);
+        }
+    }
+
+    public static String encode(Object key, Long id) {
+        String raw = (key == null ? "" : key.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new ValidationException(ExceptionCode.INVALID_CURSOR, token);
+            }
+            return new Cursor(raw.substring(0, separator), Long.valueOf(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException(ExceptionCode.INVALID_CURSOR, token);
+        }
+    }
+}
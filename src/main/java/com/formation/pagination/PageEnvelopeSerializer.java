@@ -0,0 +1,40 @@
+package com.formation.pagination;
+
+import java.io.IOException;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link Slice} as {@code {"items":[...],"page":0,"size":10,"hasNext":true}}, the same
+ * {@code items} as a {@link CursorPage}. A {@link Page} adds its {@code total}; the pageable and
+ * sort that Spring's own serialization repeats on every response are left out.
+ */
+public class PageEnvelopeSerializer extends StdSerializer<Slice<?>> {
+
+    public PageEnvelopeSerializer() {
+        super(Slice.class, false);
+    }
+
+    @Override
+    public void serialize(Slice<?> slice, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName("items");
+        gen.writeStartArray();
+        for (Object item : slice.getContent()) {
+            provider.defaultSerializeValue(item, gen);
+        }
+        gen.writeEndArray();
+        gen.writeNumberField("page", slice.getNumber());
+        gen.writeNumberField("size", slice.getSize());
+        gen.writeBooleanField("hasNext", slice.hasNext());
+        if (slice instanceof Page) {
+            gen.writeNumberField("total", ((Page<?>) slice).getTotalElements());
+        }
+        gen.writeEndObject();
+    }
+}
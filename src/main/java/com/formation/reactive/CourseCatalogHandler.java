@@ -0,0 +1,82 @@
+package com.formation.reactive;
+
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.formation.exception.ErrorResponse;
+import com.formation.exception.ExceptionCode;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Functional endpoints of the reactive catalog. Results are written as they are read, as a JSON
+ * array or as one JSON document per line when the client accepts application/x-ndjson.
+ */
+public class CourseCatalogHandler {
+
+    private static final int DEFAULT_SIZE = 20;
+    private static final int MAX_SIZE = 100;
+
+    private final ReactiveCourseRepository courses;
+
+    public CourseCatalogHandler(ReactiveCourseRepository courses) {
+        this.courses = courses;
+    }
+
+    public Mono<ServerResponse> list(ServerRequest request) {
+        return page(request, courses::findAll);
+    }
+
+    public Mono<ServerResponse> search(ServerRequest request) {
+        String keyword = request.queryParam("keyword").map(String::trim).orElse("");
+        if (keyword.length() < 2) {
+            return badRequest(request, ExceptionCode.INVALID_SEARCH, 2);
+        }
+        return page(request, (limit, offset) -> courses.search(keyword, limit, offset));
+    }
+
+    public Mono<ServerResponse> upcoming(ServerRequest request) {
+        return page(request, courses::findUpcoming);
+    }
+
+    public Mono<ServerResponse> ongoing(ServerRequest request) {
+        return page(request, courses::findOngoing);
+    }
+
+    private Mono<ServerResponse> page(ServerRequest request, BiFunction<Integer, Long, Flux<CourseView>> query) {
+        Optional<Integer> page = intParam(request, "page", 0);
+        Optional<Integer> size = intParam(request, "size", DEFAULT_SIZE);
+        if (page.isEmpty() || size.isEmpty() || page.get() < 0 || size.get() < 1 || size.get() > MAX_SIZE) {
+            return badRequest(request, ExceptionCode.INVALID_PAGE, "page must be 0 or more, size between 1 and " + MAX_SIZE);
+        }
+        MediaType type = request.headers().accept().contains(MediaType.APPLICATION_NDJSON)
+            ? MediaType.APPLICATION_NDJSON
+            : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok()
+            .contentType(type)
+            .body(query.apply(size.get(), (long) page.get() * size.get()), CourseView.class);
+    }
+
+    private static Optional<Integer> intParam(ServerRequest request, String name, int defaultValue) {
+        Optional<String> value = request.queryParam(name);
+        if (value.isEmpty()) {
+            return Optional.of(defaultValue);
+        }
+        try {
+            return Optional.of(Integer.parseInt(value.get()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Mono<ServerResponse> badRequest(ServerRequest request, ExceptionCode code, Object... args) {
+        ErrorResponse error = new ErrorResponse(400, code.getCode(),
+            String.format(code.getMessageTemplate(), args), "uri=" + request.path());
+        return ServerResponse.badRequest().contentType(MediaType.APPLICATION_JSON).bodyValue(error);
+    }
+}
@@ -0,0 +1,31 @@
+package com.formation.reactive;
+
+import java.time.LocalDate;
+
+import com.formation.entity.enums.CourseStatus;
+
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+/**
+ * Course row as served by the reactive catalog, read straight from the courses table without the
+ * JPA entity and its associations.
+ */
+@Value
+@Builder
+@Jacksonized
+public class CourseView {
+    Long id;
+    String title;
+    String level;
+    String prerequisites;
+    int minCapacity;
+    int maxCapacity;
+    int currentCapacity;
+    LocalDate startDate;
+    LocalDate endDate;
+    CourseStatus status;
+    Long trainerId;
+    Long version;
+}
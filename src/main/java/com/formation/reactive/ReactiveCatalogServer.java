@@ -0,0 +1,62 @@
+package com.formation.reactive;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Reactor Netty server for the reactive catalog, next to the servlet container. Connections are
+ * multiplexed on the Netty event loop threads, one per core, whatever the number of clients.
+ */
+@Slf4j
+public class ReactiveCatalogServer implements SmartLifecycle {
+
+    private static final int BACKLOG = 4096;
+
+    private final HttpHandler handler;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveCatalogServer(RouterFunction<ServerResponse> routes, HandlerStrategies strategies, int port) {
+        this.handler = RouterFunctions.toHttpHandler(routes, strategies);
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        server = HttpServer.create()
+            .port(port)
+            // Bursts of catalog clients connect at once, keep them in the accept queue instead of refusing
+            .option(ChannelOption.SO_BACKLOG, BACKLOG)
+            .handle(new ReactorHttpHandlerAdapter(handler))
+            .bindNow();
+        log.info("Reactive course catalog listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        server.disposeNow();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Port actually bound, useful when configured with 0.
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
@@ -0,0 +1,90 @@
+package com.formation.reactive;
+
+import java.time.LocalDate;
+import java.util.function.BiFunction;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.formation.entity.enums.CourseStatus;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import reactor.core.publisher.Flux;
+
+/**
+ * Read-only course queries over R2DBC, mirroring the JPQL of CourseRepository and served by the
+ * same indexes. Writes stay on the JPA path.
+ */
+public class ReactiveCourseRepository {
+
+    private static final String SELECT = "SELECT id, title, level, prerequisites, min_capacity, max_capacity, "
+        + "current_capacity, start_date, end_date, status, trainer_id, version FROM courses ";
+
+    private static final BiFunction<Row, RowMetadata, CourseView> MAPPER = (row, metadata) -> CourseView.builder()
+        .id(row.get("id", Long.class))
+        .title(row.get("title", String.class))
+        .level(row.get("level", String.class))
+        .prerequisites(row.get("prerequisites", String.class))
+        .minCapacity(row.get("min_capacity", Integer.class))
+        .maxCapacity(row.get("max_capacity", Integer.class))
+        .currentCapacity(row.get("current_capacity", Integer.class))
+        .startDate(row.get("start_date", LocalDate.class))
+        .endDate(row.get("end_date", LocalDate.class))
+        .status(CourseStatus.valueOf(row.get("status", String.class)))
+        .trainerId(row.get("trainer_id", Long.class))
+        .version(row.get("version", Long.class))
+        .build();
+
+    private final ConnectionPool pool;
+    private final DatabaseClient client;
+
+    public ReactiveCourseRepository(ConnectionPool pool) {
+        this.pool = pool;
+        this.client = DatabaseClient.create(pool);
+    }
+
+    public PoolMetrics getPoolMetrics() {
+        return pool.getMetrics().orElseThrow();
+    }
+
+    public void close() {
+        pool.dispose();
+    }
+
+    public Flux<CourseView> findAll(int limit, long offset) {
+        return client.sql(SELECT + "ORDER BY start_date DESC, id DESC LIMIT :limit OFFSET :offset")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(MAPPER)
+            .all();
+    }
+
+    public Flux<CourseView> search(String keyword, int limit, long offset) {
+        return client.sql(SELECT + "WHERE title LIKE :pattern OR level LIKE :pattern OR prerequisites LIKE :pattern "
+                + "ORDER BY start_date DESC, id DESC LIMIT :limit OFFSET :offset")
+            .bind("pattern", "%" + keyword + "%")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(MAPPER)
+            .all();
+    }
+
+    public Flux<CourseView> findUpcoming(int limit, long offset) {
+        return client.sql(SELECT + "WHERE status = 'PLANNED' AND start_date > CURRENT_DATE "
+                + "ORDER BY start_date, id LIMIT :limit OFFSET :offset")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(MAPPER)
+            .all();
+    }
+
+    public Flux<CourseView> findOngoing(int limit, long offset) {
+        return client.sql(SELECT + "WHERE status = 'IN_PROGRESS' ORDER BY start_date, id LIMIT :limit OFFSET :offset")
+            .bind("limit", limit)
+            .bind("offset", offset)
+            .map(MAPPER)
+            .all();
+    }
+}
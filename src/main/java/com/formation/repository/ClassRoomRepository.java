@@ -1,9 +1,17 @@
 package com.formation.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -20,16 +28,53 @@ public interface ClassRoomRepository extends JpaRepository<ClassRoom, Long> {
     Page<ClassRoom> search(@Param("keyword") String keyword, Pageable pageable);
     
     // Capacity queries
-    @Query("SELECT c FROM ClassRoom c WHERE (SELECT COUNT(s) FROM Student s WHERE s.classRoom = c) < :capacity")
+    @Query("SELECT c FROM ClassRoom c WHERE c.currentCapacity < :capacity")
     Page<ClassRoom> findAvailableRooms(@Param("capacity") int capacity, Pageable pageable);
     
-    @Query("SELECT c FROM ClassRoom c WHERE (SELECT COUNT(s) FROM Student s WHERE s.classRoom = c) = 0")
+    @Query("SELECT c FROM ClassRoom c WHERE c.currentCapacity = 0")
     Page<ClassRoom> findEmptyRooms(Pageable pageable);
     
     // Trainer-related queries
-    @Query("SELECT c FROM ClassRoom c WHERE (SELECT COUNT(t) FROM Trainer t WHERE t.classRoom = c) = 0")
+    @Query("SELECT c FROM ClassRoom c WHERE c.trainerCount = 0")
     Page<ClassRoom> findRoomsWithoutTrainers(Pageable pageable);
     
+    // Occupancy counters, kept in step with every student and trainer assignment
+    @Modifying
+    @Query("UPDATE ClassRoom c SET c.currentCapacity = c.currentCapacity + 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id AND c.currentCapacity < c.maxCapacity")
+    int incrementOccupancy(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE ClassRoom c SET c.currentCapacity = c.currentCapacity - 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id AND c.currentCapacity > 0")
+    int decrementOccupancy(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE ClassRoom c SET c.trainerCount = c.trainerCount + 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id")
+    int incrementTrainerCount(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE ClassRoom c SET c.trainerCount = c.trainerCount - 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id AND c.trainerCount > 0")
+    int decrementTrainerCount(@Param("id") Long id);
+    
+    // Keyset pagination on id
+    @Query("SELECT c FROM ClassRoom c ORDER BY c.id")
+    List<ClassRoom> seekFirst(Pageable limit);
+    
+    @Query("SELECT c FROM ClassRoom c WHERE c.id > :id ORDER BY c.id")
+    List<ClassRoom> seekAfter(@Param("id") Long id, Pageable limit);
+    
     // Validation
     boolean existsByRoomNumber(String roomNumber);
+    
+    // Seeds the room number Bloom filter
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT c.roomNumber FROM ClassRoom c")
+    Stream<String> streamRoomNumbers();
+    
+    // Optimistic lock version for conditional requests, without loading the entity
+    @Query("SELECT c.version FROM ClassRoom c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -1,19 +1,35 @@
 package com.formation.repository;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.formation.config.CacheConfig;
+import com.formation.dto.CourseSummary;
 import com.formation.entity.Course;
 import com.formation.entity.enums.CourseStatus;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
+    String SUMMARY = "SELECT new com.formation.dto.CourseSummary(c.id, c.title, c.level, c.prerequisites, c.minCapacity, "
+        + "c.maxCapacity, c.currentCapacity, c.startDate, c.endDate, c.status, c.version, t.id, t.firstName, t.lastName) "
+        + "FROM Course c LEFT JOIN c.trainer t ";
+    
     // Basic finder methods
     Page<Course> findByTitle(String title, Pageable pageable);
     Page<Course> findByLevel(String level, Pageable pageable);
@@ -27,7 +43,7 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     Page<Course> findByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
     
     // Capacity and availability queries
-    @Query("SELECT c FROM Course c WHERE SIZE(c.students) < c.maxCapacity AND c.status = 'PLANNED'")
+    @Query("SELECT c FROM Course c WHERE c.currentCapacity < c.maxCapacity AND c.status = 'PLANNED'")
     Page<Course> findAvailableCourses(Pageable pageable);
     
     @Query("SELECT c FROM Course c WHERE c.minCapacity <= :capacity AND c.maxCapacity >= :capacity")
@@ -46,4 +62,75 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     
     @Query("SELECT c FROM Course c WHERE c.trainer IS NULL")
     Page<Course> findCoursesWithoutTrainer(Pageable pageable);
+    
+    // Seat counter, the WHERE clause is the capacity check so concurrent enrollments cannot oversubscribe.
+    // Seats are part of the cached course, both services change them through these two methods
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#p0"),
+        @CacheEvict(cacheNames = {CacheConfig.UPCOMING_COURSES, CacheConfig.ONGOING_COURSES}, allEntries = true)
+    })
+    @Modifying
+    @Query("UPDATE Course c SET c.currentCapacity = c.currentCapacity + 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id AND c.currentCapacity < c.maxCapacity")
+    int reserveSeat(@Param("id") Long id);
+    
+    @Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#p0"),
+        @CacheEvict(cacheNames = {CacheConfig.UPCOMING_COURSES, CacheConfig.ONGOING_COURSES}, allEntries = true)
+    })
+    @Modifying
+    @Query("UPDATE Course c SET c.currentCapacity = c.currentCapacity - 1, c.updatedAt = CURRENT_TIMESTAMP, c.version = c.version + 1 "
+        + "WHERE c.id = :id AND c.currentCapacity > 0")
+    int releaseSeat(@Param("id") Long id);
+    
+    // Count-free slices
+    Slice<Course> findAllBy(Pageable pageable);
+    
+    @Query("SELECT c FROM Course c WHERE c.title LIKE %:keyword% OR c.level LIKE %:keyword% OR c.prerequisites LIKE %:keyword%")
+    Slice<Course> searchSlice(@Param("keyword") String keyword, Pageable pageable);
+    
+    @Query("SELECT c FROM Course c WHERE c.startDate >= :startDate AND c.endDate <= :endDate")
+    Slice<Course> findSliceByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Pageable pageable);
+    
+    // Keyset pagination on (startDate DESC, id DESC)
+    @Query("SELECT c FROM Course c ORDER BY c.startDate DESC, c.id DESC")
+    List<Course> seekFirst(Pageable limit);
+    
+    @Query("SELECT c FROM Course c WHERE c.startDate < :startDate OR (c.startDate = :startDate AND c.id < :id) ORDER BY c.startDate DESC, c.id DESC")
+    List<Course> seekAfter(@Param("startDate") LocalDate startDate, @Param("id") Long id, Pageable limit);
+    
+    // Streaming export, rows are fetched from the cursor in batches instead of materialized
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT c FROM Course c ORDER BY c.id")
+    Stream<Course> streamAll();
+    
+    // Optimistic lock version for conditional requests, without loading the entity
+    @Query("SELECT c.version FROM Course c WHERE c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Summaries for the list endpoints, the trainer's name comes from the same query
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(c) FROM Course c")
+    Page<CourseSummary> findSummaries(Pageable pageable);
+    
+    @Query(SUMMARY)
+    Slice<CourseSummary> findSummarySlice(Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE c.startDate >= :startDate AND c.endDate <= :endDate",
+        countQuery = "SELECT COUNT(c) FROM Course c WHERE c.startDate >= :startDate AND c.endDate <= :endDate")
+    Page<CourseSummary> findSummariesByDateRange(@Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.startDate >= :startDate AND c.endDate <= :endDate")
+    Slice<CourseSummary> findSummarySliceByDateRange(@Param("startDate") LocalDate startDate,
+        @Param("endDate") LocalDate endDate, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE c.trainer.id = :trainerId",
+        countQuery = "SELECT COUNT(c) FROM Course c WHERE c.trainer.id = :trainerId")
+    Page<CourseSummary> findSummariesByTrainerId(@Param("trainerId") Long trainerId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE c.trainer.id = :trainerId")
+    Slice<CourseSummary> findSummarySliceByTrainerId(@Param("trainerId") Long trainerId, Pageable pageable);
 }
@@ -1,16 +1,33 @@
 package com.formation.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.formation.dto.StudentSummary;
+import com.formation.entity.Course;
 import com.formation.entity.Student;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
+    String SUMMARY = "SELECT new com.formation.dto.StudentSummary(s.id, s.lastName, s.firstName, s.email, s.level, "
+        + "s.version, c.id, c.title, r.id, r.roomNumber) FROM Student s LEFT JOIN s.course c LEFT JOIN s.classRoom r ";
+    
     // Basic finders
     Page<Student> findByEmail(String email, Pageable pageable);
     Page<Student> findByLevel(String level, Pageable pageable);
@@ -29,6 +46,88 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query("SELECT s FROM Student s WHERE s.classRoom.id = :classRoomId")
     Page<Student> findByClassRoomId(@Param("classRoomId") Long classRoomId, Pageable pageable);
     
+    // Concurrent updates of one student wait here, so each moves occupancy and seats from the row the previous one committed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Student s WHERE s.id = :id")
+    Optional<Student> findForUpdateById(@Param("id") Long id);
+    
+    // Optimistic lock version for conditional requests, without loading the entity
+    @Query("SELECT s.version FROM Student s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Enrollment
+    @Modifying
+    @Query("UPDATE Student s SET s.course = :course, s.updatedAt = CURRENT_TIMESTAMP, s.version = s.version + 1 WHERE s.id = :id AND s.course IS NULL")
+    int assignCourse(@Param("id") Long id, @Param("course") Course course);
+    
+    @Modifying
+    @Query("UPDATE Student s SET s.course = NULL, s.updatedAt = CURRENT_TIMESTAMP, s.version = s.version + 1 WHERE s.id = :id AND s.course.id = :courseId")
+    int clearCourse(@Param("id") Long id, @Param("courseId") Long courseId);
+    
+    // Count-free slices
+    Slice<Student> findAllBy(Pageable pageable);
+    Slice<Student> findSliceByLevel(String level, Pageable pageable);
+    
+    @Query("SELECT s FROM Student s WHERE s.lastName LIKE %:keyword% OR s.firstName LIKE %:keyword% OR s.email LIKE %:keyword%")
+    Slice<Student> searchSlice(@Param("keyword") String keyword, Pageable pageable);
+    
+    // Keyset pagination on (lastName, id)
+    @Query("SELECT s FROM Student s ORDER BY s.lastName, s.id")
+    List<Student> seekFirst(Pageable limit);
+    
+    @Query("SELECT s FROM Student s WHERE s.lastName > :lastName OR (s.lastName = :lastName AND s.id > :id) ORDER BY s.lastName, s.id")
+    List<Student> seekAfter(@Param("lastName") String lastName, @Param("id") Long id, Pageable limit);
+    
+    // Summaries for the list endpoints, course title and room number come from the same query
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(s) FROM Student s")
+    Page<StudentSummary> findSummaries(Pageable pageable);
+    
+    @Query(SUMMARY)
+    Slice<StudentSummary> findSummarySlice(Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE s.level = :level", countQuery = "SELECT COUNT(s) FROM Student s WHERE s.level = :level")
+    Page<StudentSummary> findSummariesByLevel(@Param("level") String level, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE s.level = :level")
+    Slice<StudentSummary> findSummarySliceByLevel(@Param("level") String level, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE s.course.id = :courseId",
+        countQuery = "SELECT COUNT(s) FROM Student s WHERE s.course.id = :courseId")
+    Page<StudentSummary> findSummariesByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE s.course.id = :courseId")
+    Slice<StudentSummary> findSummarySliceByCourseId(@Param("courseId") Long courseId, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE s.classRoom.id = :classRoomId",
+        countQuery = "SELECT COUNT(s) FROM Student s WHERE s.classRoom.id = :classRoomId")
+    Page<StudentSummary> findSummariesByClassRoomId(@Param("classRoomId") Long classRoomId, Pageable pageable);
+    
+    @Query(SUMMARY + "WHERE s.classRoom.id = :classRoomId")
+    Slice<StudentSummary> findSummarySliceByClassRoomId(@Param("classRoomId") Long classRoomId, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE s.lastName = :lastName AND s.firstName = :firstName",
+        countQuery = "SELECT COUNT(s) FROM Student s WHERE s.lastName = :lastName AND s.firstName = :firstName")
+    Page<StudentSummary> findSummariesByName(@Param("lastName") String lastName, @Param("firstName") String firstName,
+        Pageable pageable);
+    
     // Validation
     boolean existsByEmail(String email);
+    
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    // Streaming export, rows are fetched from the cursor in batches instead of materialized
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    Stream<Student> streamAll();
+    
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT s FROM Student s WHERE s.course.id = :courseId ORDER BY s.id")
+    Stream<Student> streamByCourseId(@Param("courseId") Long courseId);
 }
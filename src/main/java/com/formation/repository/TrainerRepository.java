@@ -1,16 +1,27 @@
 package com.formation.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.formation.dto.TrainerSummary;
 import com.formation.entity.Trainer;
 
 @Repository
 public interface TrainerRepository extends JpaRepository<Trainer, Long> {
+    String SUMMARY = "SELECT new com.formation.dto.TrainerSummary(t.id, t.lastName, t.firstName, t.email, t.specialty, "
+        + "t.version, r.id, r.roomNumber) FROM Trainer t LEFT JOIN t.classRoom r ";
+    
     // Basic finder methods
     Page<Trainer> findByEmail(String email, Pageable pageable);
     Page<Trainer> findBySpecialty(String specialty, Pageable pageable);
@@ -24,6 +35,9 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     @Query("SELECT t FROM Trainer t WHERE t.classRoom.id = :classRoomId")
     Page<Trainer> findByClassRoomId(@Param("classRoomId") Long classRoomId, Pageable pageable);
     
+    @Query("SELECT t.classRoom.id FROM Trainer t WHERE t.id = :id")
+    Long findClassRoomIdById(@Param("id") Long id);
+    
     // Course-related queries
     @Query("SELECT t FROM Trainer t WHERE (SELECT COUNT(c) FROM Course c WHERE c.trainer = t) < :maxCourses")
     Page<Trainer> findAvailableTrainers(@Param("maxCourses") int maxCourses, Pageable pageable);
@@ -31,6 +45,59 @@ public interface TrainerRepository extends JpaRepository<Trainer, Long> {
     @Query("SELECT t FROM Trainer t WHERE (SELECT COUNT(c) FROM Course c WHERE c.trainer = t) = 0")
     Page<Trainer> findTrainersWithoutCourses(Pageable pageable);
     
+    // Keyset pagination on (lastName, id)
+    @Query("SELECT t FROM Trainer t ORDER BY t.lastName, t.id")
+    List<Trainer> seekFirst(Pageable limit);
+    
+    @Query("SELECT t FROM Trainer t WHERE t.lastName > :lastName OR (t.lastName = :lastName AND t.id > :id) ORDER BY t.lastName, t.id")
+    List<Trainer> seekAfter(@Param("lastName") String lastName, @Param("id") Long id, Pageable limit);
+    
     // Validation
     boolean existsByEmail(String email);
+    
+    // Seeds the email Bloom filter
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT t.email FROM Trainer t")
+    Stream<String> streamEmails();
+    
+    // Streaming export, rows are fetched from the cursor in batches instead of materialized
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT t FROM Trainer t ORDER BY t.id")
+    Stream<Trainer> streamAll();
+    
+    // Optimistic lock version for conditional requests, without loading the entity
+    @Query("SELECT t.version FROM Trainer t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    // Summaries for the list endpoints, the room number comes from the same query
+    @Query(value = SUMMARY, countQuery = "SELECT COUNT(t) FROM Trainer t")
+    Page<TrainerSummary> findSummaries(Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE t.email = :email", countQuery = "SELECT COUNT(t) FROM Trainer t WHERE t.email = :email")
+    Page<TrainerSummary> findSummariesByEmail(@Param("email") String email, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE t.specialty = :specialty",
+        countQuery = "SELECT COUNT(t) FROM Trainer t WHERE t.specialty = :specialty")
+    Page<TrainerSummary> findSummariesBySpecialty(@Param("specialty") String specialty, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE t.lastName = :lastName AND t.firstName = :firstName",
+        countQuery = "SELECT COUNT(t) FROM Trainer t WHERE t.lastName = :lastName AND t.firstName = :firstName")
+    Page<TrainerSummary> findSummariesByName(@Param("lastName") String lastName, @Param("firstName") String firstName,
+        Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE t.classRoom.id = :classRoomId",
+        countQuery = "SELECT COUNT(t) FROM Trainer t WHERE t.classRoom.id = :classRoomId")
+    Page<TrainerSummary> findSummariesByClassRoomId(@Param("classRoomId") Long classRoomId, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE t.lastName LIKE %:keyword% OR t.firstName LIKE %:keyword% OR t.specialty LIKE %:keyword%",
+        countQuery = "SELECT COUNT(t) FROM Trainer t "
+            + "WHERE t.lastName LIKE %:keyword% OR t.firstName LIKE %:keyword% OR t.specialty LIKE %:keyword%")
+    Page<TrainerSummary> searchSummaries(@Param("keyword") String keyword, Pageable pageable);
+    
+    @Query(value = SUMMARY + "WHERE (SELECT COUNT(c) FROM Course c WHERE c.trainer = t) < :maxCourses",
+        countQuery = "SELECT COUNT(t) FROM Trainer t WHERE (SELECT COUNT(c) FROM Course c WHERE c.trainer = t) < :maxCourses")
+    Page<TrainerSummary> findAvailableSummaries(@Param("maxCourses") int maxCourses, Pageable pageable);
 }
@@ -0,0 +1,25 @@
+package com.formation.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.formation.entity.Course;
+
+public interface CourseSearchEngine {
+    Page<Course> search(String keyword, Pageable pageable);
+    
+    default Slice<Course> searchSlice(String keyword, Pageable pageable) {
+        Page<Course> page = search(keyword, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+    
+    // Matching ids in result order, for callers that read their own columns
+    default Page<Long> searchIds(String keyword, Pageable pageable) {
+        return search(keyword, pageable).map(Course::getId);
+    }
+    
+    void index(Course course);
+    void remove(Long id);
+}
@@ -0,0 +1,27 @@
+package com.formation.search;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class IndexUpdates {
+
+    /**
+     * Runs the index update once the surrounding transaction commits, so a
+     * rolled back write never becomes searchable.
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.formation.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.formation.entity.Course;
+import com.formation.repository.CourseRepository;
+
+@Component
+@ConditionalOnProperty(name = "formation.search.course.engine", havingValue = "jpql")
+public class JpqlCourseSearchEngine implements CourseSearchEngine {
+
+    private final CourseRepository courseRepository;
+
+    public JpqlCourseSearchEngine(CourseRepository courseRepository) {
+        this.courseRepository = courseRepository;
+    }
+
+    @Override
+    public Page<Course> search(String keyword, Pageable pageable) {
+        return courseRepository.search(keyword, pageable);
+    }
+
+    @Override
+    public Slice<Course> searchSlice(String keyword, Pageable pageable) {
+        return courseRepository.searchSlice(keyword, pageable);
+    }
+
+    @Override
+    public void index(Course course) {
+        // The LIKE query reads the table directly, nothing to maintain
+    }
+
+    @Override
+    public void remove(Long id) {
+        // The LIKE query reads the table directly, nothing to maintain
+    }
+}
@@ -0,0 +1,41 @@
+package com.formation.search;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+
+import com.formation.entity.Student;
+import com.formation.repository.StudentRepository;
+
+@Component
+@ConditionalOnProperty(name = "formation.search.student.engine", havingValue = "jpql")
+public class JpqlStudentSearchEngine implements StudentSearchEngine {
+
+    private final StudentRepository studentRepository;
+
+    public JpqlStudentSearchEngine(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    @Override
+    public Page<Student> search(String keyword, Pageable pageable) {
+        return studentRepository.search(keyword, pageable);
+    }
+
+    @Override
+    public Slice<Student> searchSlice(String keyword, Pageable pageable) {
+        return studentRepository.searchSlice(keyword, pageable);
+    }
+
+    @Override
+    public void index(Student student) {
+        // The LIKE query reads the table directly, nothing to maintain
+    }
+
+    @Override
+    public void remove(Long id) {
+        // The LIKE query reads the table directly, nothing to maintain
+    }
+}
@@ -0,0 +1,318 @@
+package com.formation.search;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.annotation.PreDestroy;
+
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.formation.entity.Course;
+import com.formation.repository.CourseRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "formation.search.course.engine", havingValue = "lucene", matchIfMissing = true)
+public class LuceneCourseSearchEngine implements CourseSearchEngine {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final String ID = "id";
+    private static final String SORT_SUFFIX = "_sort";
+    private static final Map<String, Float> SEARCH_FIELDS = new LinkedHashMap<>();
+    private static final Map<String, SortField.Type> SORTABLE_PROPERTIES = new HashMap<>();
+
+    static {
+        SEARCH_FIELDS.put("title", 3f);
+        SEARCH_FIELDS.put("level", 2f);
+        SEARCH_FIELDS.put("prerequisites", 1f);
+
+        SORTABLE_PROPERTIES.put("id", SortField.Type.LONG);
+        SORTABLE_PROPERTIES.put("title", SortField.Type.STRING);
+        SORTABLE_PROPERTIES.put("startDate", SortField.Type.LONG);
+        SORTABLE_PROPERTIES.put("endDate", SortField.Type.LONG);
+    }
+
+    private final CourseRepository courseRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final Object updates = new Object();
+    // Changes committed while a rebuild reads the table, replayed over the rows it read; guarded by updates
+    private Map<Long, Optional<Document>> pending;
+    private volatile boolean ready;
+
+    public LuceneCourseSearchEngine(CourseRepository courseRepository,
+            @Value("${formation.search.course.index-dir:}") String indexDir) throws IOException {
+        this.courseRepository = courseRepository;
+        this.directory = indexDir.trim().isEmpty()
+            ? new ByteBuffersDirectory()
+            : FSDirectory.open(Paths.get(indexDir));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() throws IOException {
+        synchronized (updates) {
+            pending = new LinkedHashMap<>();
+        }
+        // Searches keep reading the current index until the rebuilt one replaces its content
+        try (Directory rebuilt = new ByteBuffersDirectory()) {
+            try (IndexWriter staging = new IndexWriter(rebuilt, new IndexWriterConfig(analyzer))) {
+                Pageable batch = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+                Page<Course> courses;
+                do {
+                    courses = courseRepository.findAll(batch);
+                    for (Course course : courses) {
+                        staging.addDocument(document(course));
+                    }
+                    batch = courses.nextPageable();
+                } while (courses.hasNext());
+                synchronized (updates) {
+                    for (Map.Entry<Long, Optional<Document>> change : pending.entrySet()) {
+                        apply(staging, change.getKey(), change.getValue().orElse(null));
+                    }
+                    pending = null;
+                    staging.commit();
+                    staging.close();
+                    writer.deleteAll();
+                    writer.addIndexes(rebuilt);
+                    writer.commit();
+                    searcherManager.maybeRefreshBlocking();
+                }
+            }
+        } finally {
+            synchronized (updates) {
+                pending = null;
+            }
+        }
+        ready = true;
+        log.info("Course search index built with {} documents", writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    @Override
+    public Page<Course> search(String keyword, Pageable pageable) {
+        org.apache.lucene.search.Sort sort = sort(pageable.getSort());
+        if (!ready || sort == null) {
+            return courseRepository.search(keyword, pageable);
+        }
+
+        Page<Long> ids = matchingIds(keyword, pageable, sort);
+        if (!ids.hasContent()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+
+        Map<Long, Course> loaded = courseRepository.findAllById(ids.getContent()).stream()
+            .collect(Collectors.toMap(Course::getId, Function.identity()));
+        List<Course> content = ids.stream()
+            .map(loaded::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public Slice<Course> searchSlice(String keyword, Pageable pageable) {
+        org.apache.lucene.search.Sort sort = sort(pageable.getSort());
+        if (!ready || sort == null) {
+            return courseRepository.searchSlice(keyword, pageable);
+        }
+        Page<Course> page = search(keyword, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    @Override
+    public Page<Long> searchIds(String keyword, Pageable pageable) {
+        org.apache.lucene.search.Sort sort = sort(pageable.getSort());
+        if (!ready || sort == null) {
+            return courseRepository.search(keyword, pageable).map(Course::getId);
+        }
+        return matchingIds(keyword, pageable, sort);
+    }
+
+    private Page<Long> matchingIds(String keyword, Pageable pageable, org.apache.lucene.search.Sort sort) {
+        List<Long> ids = new ArrayList<>();
+        long total;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int from = pageable.isPaged() ? (int) pageable.getOffset() : 0;
+                int size = pageable.isPaged() ? pageable.getPageSize() : Math.max(1, searcher.getIndexReader().numDocs());
+                TopFieldCollector collector = TopFieldCollector.create(sort, from + size, Integer.MAX_VALUE);
+                searcher.search(query(keyword), collector);
+                total = collector.getTotalHits();
+                for (ScoreDoc hit : collector.topDocs(from, size).scoreDocs) {
+                    ids.add(Long.valueOf(searcher.doc(hit.doc).get(ID)));
+                }
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    @Override
+    public void index(Course course) {
+        Document document = document(course);
+        IndexUpdates.afterCommit(() -> update(course.getId(), document));
+    }
+
+    @Override
+    public void remove(Long id) {
+        IndexUpdates.afterCommit(() -> update(id, null));
+    }
+
+    private void update(Long id, Document document) {
+        synchronized (updates) {
+            try {
+                apply(writer, id, document);
+                searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                log.error("Failed to update search index for course {}", id, e);
+            }
+            if (pending != null) {
+                pending.put(id, Optional.ofNullable(document));
+            }
+        }
+    }
+
+    private static void apply(IndexWriter target, Long id, Document document) throws IOException {
+        if (document == null) {
+            target.deleteDocuments(idTerm(id));
+        } else {
+            target.updateDocument(idTerm(id), document);
+        }
+    }
+
+    private Query query(String keyword) throws IOException {
+        List<String> terms = analyze(keyword);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+        BooleanQuery.Builder allTerms = new BooleanQuery.Builder();
+        for (String term : terms) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            SEARCH_FIELDS.forEach((field, boost) -> {
+                anyField.add(new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(new Term(field, term)), boost / 2), BooleanClause.Occur.SHOULD);
+            });
+            allTerms.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return allTerms.build();
+    }
+
+    private List<String> analyze(String text) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream("title", text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            stream.end();
+        }
+        return terms;
+    }
+
+    private static org.apache.lucene.search.Sort sort(Sort sort) {
+        List<SortField> fields = new ArrayList<>();
+        if (sort.isUnsorted()) {
+            fields.add(SortField.FIELD_SCORE);
+        }
+        for (Sort.Order order : sort) {
+            SortField.Type type = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (type == null || order.isIgnoreCase()) {
+                return null;
+            }
+            fields.add(new SortField(order.getProperty() + SORT_SUFFIX, type, order.isDescending()));
+        }
+        fields.add(new SortField(ID + SORT_SUFFIX, SortField.Type.LONG));
+        return new org.apache.lucene.search.Sort(fields.toArray(new SortField[0]));
+    }
+
+    private static Document document(Course course) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(course.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID + SORT_SUFFIX, course.getId()));
+        document.add(new TextField("title", course.getTitle(), Field.Store.NO));
+        document.add(new SortedDocValuesField("title" + SORT_SUFFIX, new BytesRef(course.getTitle())));
+        document.add(new TextField("level", course.getLevel(), Field.Store.NO));
+        if (course.getPrerequisites() != null) {
+            document.add(new TextField("prerequisites", course.getPrerequisites(), Field.Store.NO));
+        }
+        if (course.getStartDate() != null) {
+            document.add(new NumericDocValuesField("startDate" + SORT_SUFFIX, course.getStartDate().toEpochDay()));
+        }
+        if (course.getEndDate() != null) {
+            document.add(new NumericDocValuesField("endDate" + SORT_SUFFIX, course.getEndDate().toEpochDay()));
+        }
+        return document;
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, String.valueOf(id));
+    }
+}
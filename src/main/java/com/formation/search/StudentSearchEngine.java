@@ -0,0 +1,25 @@
+package com.formation.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.formation.entity.Student;
+
+public interface StudentSearchEngine {
+    Page<Student> search(String keyword, Pageable pageable);
+    
+    default Slice<Student> searchSlice(String keyword, Pageable pageable) {
+        Page<Student> page = search(keyword, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+    
+    // Matching ids in result order, for callers that read their own columns
+    default Page<Long> searchIds(String keyword, Pageable pageable) {
+        return search(keyword, pageable).map(Student::getId);
+    }
+    
+    void index(Student student);
+    void remove(Long id);
+}
@@ -0,0 +1,190 @@
+package com.formation.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index answering substring ({@code LIKE %keyword%}) lookups.
+ * Documents are appended to slots so posting lists stay sorted; updates and
+ * removals leave dead slots behind which are dropped on compaction.
+ */
+class TrigramIndex<D> {
+
+    static final int GRAM_SIZE = 3;
+    private static final int MIN_DEAD_SLOTS_FOR_COMPACTION = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, IntList> postings = new HashMap<>();
+    private final List<Slot<D>> slots = new ArrayList<>();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private int deadSlots;
+
+    void put(long id, D document, String... fields) {
+        lock.writeLock().lock();
+        try {
+            release(id);
+            append(id, new Slot<>(document, fields));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            release(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<D> search(String keyword) {
+        lock.readLock().lock();
+        try {
+            List<D> matches = new ArrayList<>();
+            if (keyword.length() < GRAM_SIZE) {
+                for (Slot<D> slot : slots) {
+                    if (slot != null && slot.contains(keyword)) {
+                        matches.add(slot.document);
+                    }
+                }
+                return matches;
+            }
+            for (int candidate : candidates(keyword)) {
+                Slot<D> slot = slots.get(candidate);
+                if (slot != null && slot.contains(keyword)) {
+                    matches.add(slot.document);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] candidates(String keyword) {
+        List<IntList> lists = new ArrayList<>();
+        for (String gram : grams(keyword)) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.size));
+        int[] result = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+        int length = result.length;
+        for (int i = 1; i < lists.size() && length > 0; i++) {
+            length = retainAll(result, length, lists.get(i));
+        }
+        return Arrays.copyOf(result, length);
+    }
+
+    private static int retainAll(int[] target, int length, IntList other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < other.size; i++) {
+            while (j < other.size && other.values[j] < target[i]) {
+                j++;
+            }
+            if (j < other.size && other.values[j] == target[i]) {
+                target[kept++] = target[i];
+            }
+        }
+        return kept;
+    }
+
+    private void append(long id, Slot<D> slot) {
+        int position = slots.size();
+        slots.add(slot);
+        slotById.put(id, position);
+        Set<String> grams = new LinkedHashSet<>();
+        for (String field : slot.fields) {
+            if (field != null) {
+                grams.addAll(grams(field));
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new IntList()).add(position);
+        }
+    }
+
+    private void release(long id) {
+        Integer position = slotById.remove(id);
+        if (position != null) {
+            slots.set(position, null);
+            deadSlots++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deadSlots < MIN_DEAD_SLOTS_FOR_COMPACTION || deadSlots < slotById.size()) {
+            return;
+        }
+        Map<Long, Slot<D>> live = new HashMap<>();
+        slotById.forEach((id, position) -> live.put(id, slots.get(position)));
+        postings.clear();
+        slots.clear();
+        slotById.clear();
+        deadSlots = 0;
+        live.forEach(this::append);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private static final class Slot<D> {
+        private final D document;
+        private final String[] fields;
+
+        private Slot(D document, String[] fields) {
+            this.document = document;
+            this.fields = fields;
+        }
+
+        private boolean contains(String keyword) {
+            for (String field : fields) {
+                if (field != null && field.contains(keyword)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.formation.search;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import com.formation.entity.Student;
+import com.formation.repository.StudentRepository;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "formation.search.student.engine", havingValue = "trigram", matchIfMissing = true)
+public class TrigramStudentSearchEngine implements StudentSearchEngine {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    private static final Map<String, Comparator<StudentDocument>> SORTABLE_PROPERTIES = new HashMap<>();
+
+    static {
+        SORTABLE_PROPERTIES.put("id", Comparator.comparing(StudentDocument::getId));
+        SORTABLE_PROPERTIES.put("lastName", Comparator.comparing(StudentDocument::getLastName));
+        SORTABLE_PROPERTIES.put("firstName", Comparator.comparing(StudentDocument::getFirstName));
+        SORTABLE_PROPERTIES.put("email", Comparator.comparing(StudentDocument::getEmail));
+        SORTABLE_PROPERTIES.put("level", Comparator.comparing(StudentDocument::getLevel));
+    }
+
+    private final StudentRepository studentRepository;
+    private final Object updates = new Object();
+    private volatile TrigramIndex<StudentDocument> index = new TrigramIndex<>();
+    // Changes committed while a rebuild reads the table, replayed over the rows it read; guarded by updates
+    private Map<Long, Optional<StudentDocument>> pending;
+    private volatile boolean ready;
+
+    public TrigramStudentSearchEngine(StudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (updates) {
+            pending = new LinkedHashMap<>();
+        }
+        // Searches keep reading the current index until the new one replaces it
+        TrigramIndex<StudentDocument> rebuilt = new TrigramIndex<>();
+        try {
+            Pageable batch = PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id"));
+            Page<Student> students;
+            do {
+                students = studentRepository.findAll(batch);
+                students.forEach(student -> put(rebuilt, document(student)));
+                batch = students.nextPageable();
+            } while (students.hasNext());
+        } catch (RuntimeException e) {
+            synchronized (updates) {
+                pending = null;
+            }
+            throw e;
+        }
+        synchronized (updates) {
+            pending.forEach((id, document) -> apply(rebuilt, id, document.orElse(null)));
+            pending = null;
+            index = rebuilt;
+        }
+        ready = true;
+        log.info("Student search index built with {} entries", rebuilt.size());
+    }
+
+    @Override
+    public Page<Student> search(String keyword, Pageable pageable) {
+        Comparator<StudentDocument> order = comparator(pageable.getSort());
+        if (!ready || order == null) {
+            return studentRepository.search(keyword, pageable);
+        }
+
+        Page<Long> ids = matchingIds(keyword, pageable, order);
+        if (!ids.hasContent()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ids.getTotalElements());
+        }
+
+        Map<Long, Student> loaded = studentRepository.findAllById(ids.getContent()).stream()
+            .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<Student> content = ids.stream()
+            .map(loaded::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public Slice<Student> searchSlice(String keyword, Pageable pageable) {
+        Comparator<StudentDocument> order = comparator(pageable.getSort());
+        if (!ready || order == null) {
+            return studentRepository.searchSlice(keyword, pageable);
+        }
+        Page<Student> page = search(keyword, pageable);
+        return new SliceImpl<>(page.getContent(), pageable, page.hasNext());
+    }
+
+    @Override
+    public Page<Long> searchIds(String keyword, Pageable pageable) {
+        Comparator<StudentDocument> order = comparator(pageable.getSort());
+        if (!ready || order == null) {
+            return studentRepository.search(keyword, pageable).map(Student::getId);
+        }
+        return matchingIds(keyword, pageable, order);
+    }
+
+    private Page<Long> matchingIds(String keyword, Pageable pageable, Comparator<StudentDocument> order) {
+        List<StudentDocument> matches = index.search(keyword);
+        matches.sort(order);
+
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), matches.size()) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), matches.size()) : matches.size();
+        List<Long> ids = matches.subList(from, to).stream()
+            .map(StudentDocument::getId)
+            .collect(Collectors.toList());
+        return new PageImpl<>(ids, pageable, matches.size());
+    }
+
+    @Override
+    public void index(Student student) {
+        IndexUpdates.afterCommit(() -> update(student.getId(), document(student)));
+    }
+
+    @Override
+    public void remove(Long id) {
+        IndexUpdates.afterCommit(() -> update(id, null));
+    }
+
+    private void update(Long id, StudentDocument document) {
+        synchronized (updates) {
+            apply(index, id, document);
+            if (pending != null) {
+                pending.put(id, Optional.ofNullable(document));
+            }
+        }
+    }
+
+    private static void apply(TrigramIndex<StudentDocument> target, Long id, StudentDocument document) {
+        if (document == null) {
+            target.remove(id);
+        } else {
+            put(target, document);
+        }
+    }
+
+    private static void put(TrigramIndex<StudentDocument> target, StudentDocument document) {
+        target.put(document.getId(), document,
+            document.getLastName(), document.getFirstName(), document.getEmail());
+    }
+
+    private static StudentDocument document(Student student) {
+        return new StudentDocument(student.getId(), student.getLastName(),
+            student.getFirstName(), student.getEmail(), student.getLevel());
+    }
+
+    private static Comparator<StudentDocument> comparator(Sort sort) {
+        Comparator<StudentDocument> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<StudentDocument> property = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (property == null || order.isIgnoreCase()) {
+                return null;
+            }
+            if (order.isDescending()) {
+                property = property.reversed();
+            }
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        Comparator<StudentDocument> byId = SORTABLE_PROPERTIES.get("id");
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    @Value
+    private static class StudentDocument {
+        Long id;
+        String lastName;
+        String firstName;
+        String email;
+        String level;
+    }
+}
@@ -4,11 +4,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.formation.entity.ClassRoom;
+import com.formation.pagination.CursorPage;
 
 public interface ClassRoomService {
     ClassRoom save(ClassRoom classRoom);
     ClassRoom findById(Long id);
+    Long findVersionById(Long id);
     Page<ClassRoom> findAll(Pageable pageable);
+    CursorPage<ClassRoom> findAllAfter(String cursor, int size);
     ClassRoom update(ClassRoom classRoom);
     void delete(Long id);
     Page<ClassRoom> search(String keyword, Pageable pageable);
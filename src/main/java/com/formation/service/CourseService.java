@@ -4,13 +4,18 @@ import java.time.LocalDate;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.formation.dto.CourseSummary;
 import com.formation.entity.Course;
+import com.formation.pagination.CursorPage;
 
 public interface CourseService {
     Course save(Course course);
     Course findById(Long id);
+    Long findVersionById(Long id);
     Page<Course> findAll(Pageable pageable);
+    CursorPage<Course> findAllAfter(String cursor, int size);
     Course update(Course course);
     void delete(Long id);
     Page<Course> search(String keyword, Pageable pageable);
@@ -21,4 +26,21 @@ public interface CourseService {
     Page<Course> findOngoingCourses(Pageable pageable);
     Page<Course> findByTrainerId(Long trainerId, Pageable pageable);
     Page<Course> findCoursesWithoutTrainer(Pageable pageable);
+    
+    // Enrollment
+    void enroll(Long courseId, Long studentId);
+    void unenroll(Long courseId, Long studentId);
+    
+    // Count-free variants
+    Slice<Course> findAllSlice(Pageable pageable);
+    Slice<Course> searchSlice(String keyword, Pageable pageable);
+    Slice<Course> findSliceByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    
+    // List projections
+    Page<CourseSummary> findSummaries(Pageable pageable);
+    Slice<CourseSummary> findSummarySlice(Pageable pageable);
+    Page<CourseSummary> findSummariesByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    Slice<CourseSummary> findSummarySliceByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable);
+    Page<CourseSummary> findSummariesByTrainerId(Long trainerId, Pageable pageable);
+    Slice<CourseSummary> findSummarySliceByTrainerId(Long trainerId, Pageable pageable);
 }
@@ -0,0 +1,11 @@
+package com.formation.service;
+
+import java.io.OutputStream;
+
+import com.formation.exports.ExportFormat;
+
+public interface ExportService {
+    void exportStudents(Long courseId, ExportFormat format, OutputStream out);
+    void exportCourses(ExportFormat format, OutputStream out);
+    void exportTrainers(ExportFormat format, OutputStream out);
+}
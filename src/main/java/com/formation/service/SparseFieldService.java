@@ -0,0 +1,18 @@
+package com.formation.service;
+
+import java.io.OutputStream;
+
+import org.springframework.data.domain.Pageable;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.formation.fields.FieldSelection;
+
+public interface SparseFieldService {
+    void writeSlice(FieldSelection fields, Pageable pageable, JsonFactory format, OutputStream out);
+    void writeStudentSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out);
+    void writeCourseSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out);
+    void writeTrainerSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out);
+}
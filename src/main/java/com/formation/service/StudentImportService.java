@@ -0,0 +1,9 @@
+package com.formation.service;
+
+import java.io.Reader;
+
+import com.formation.imports.ImportReport;
+
+public interface StudentImportService {
+    ImportReport importCsv(Reader csv);
+}
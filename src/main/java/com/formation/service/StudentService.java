@@ -1,18 +1,42 @@
 package com.formation.service;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import com.formation.dto.StudentSummary;
 import com.formation.entity.Student;
+import com.formation.pagination.CursorPage;
 
 public interface StudentService {
-    Student save(Student student);
-    Student findById(Long id);
+    Student save(@Valid @NotNull Student student);
+    Student findById(@NotNull Long id);
+    Long findVersionById(Long id);
     Page<Student> findAll(Pageable pageable);
-    Student update(Student student);
-    void delete(Long id);
+    CursorPage<Student> findAllAfter(String cursor, int size);
+    Student update(@Valid @NotNull Student student);
+    void delete(@NotNull Long id);
     Page<Student> search(String keyword, Pageable pageable);
     Page<Student> findByLevel(String level, Pageable pageable);
     Page<Student> findByCourseId(Long courseId, Pageable pageable);
     Page<Student> findByClassRoomId(Long classRoomId, Pageable pageable);
     Page<Student> findByLastNameAndFirstName(String lastName, String firstName, Pageable pageable);
+    
+    // Count-free variants
+    Slice<Student> findAllSlice(Pageable pageable);
+    Slice<Student> searchSlice(String keyword, Pageable pageable);
+    Slice<Student> findSliceByLevel(String level, Pageable pageable);
+    
+    // List projections
+    Page<StudentSummary> findSummaries(Pageable pageable);
+    Slice<StudentSummary> findSummarySlice(Pageable pageable);
+    Page<StudentSummary> findSummariesByLevel(String level, Pageable pageable);
+    Slice<StudentSummary> findSummarySliceByLevel(String level, Pageable pageable);
+    Page<StudentSummary> findSummariesByCourseId(Long courseId, Pageable pageable);
+    Slice<StudentSummary> findSummarySliceByCourseId(Long courseId, Pageable pageable);
+    Page<StudentSummary> findSummariesByClassRoomId(Long classRoomId, Pageable pageable);
+    Slice<StudentSummary> findSummarySliceByClassRoomId(Long classRoomId, Pageable pageable);
+    Page<StudentSummary> findSummariesByName(String lastName, String firstName, Pageable pageable);
 }
@@ -2,13 +2,17 @@ package com.formation.service;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import com.formation.dto.TrainerSummary;
 import com.formation.entity.Trainer;
+import com.formation.pagination.CursorPage;
 
 public interface TrainerService {
     // Basic CRUD operations
     Trainer save(Trainer trainer);
     Trainer findById(Long id);
+    Long findVersionById(Long id);
     Page<Trainer> findAll(Pageable pageable);
+    CursorPage<Trainer> findAllAfter(String cursor, int size);
     Trainer update(Trainer trainer);
     void delete(Long id);
     
@@ -24,4 +28,13 @@ public interface TrainerService {
     // Course-related operations
     Page<Trainer> findAvailableTrainers(int maxCourses, Pageable pageable);
     Page<Trainer> findTrainersWithoutCourses(Pageable pageable);
+    
+    // List projections
+    Page<TrainerSummary> findSummaries(Pageable pageable);
+    Page<TrainerSummary> searchSummaries(String keyword, Pageable pageable);
+    Page<TrainerSummary> findSummariesByEmail(String email, Pageable pageable);
+    Page<TrainerSummary> findSummariesBySpecialty(String specialty, Pageable pageable);
+    Page<TrainerSummary> findSummariesByName(String lastName, String firstName, Pageable pageable);
+    Page<TrainerSummary> findSummariesByClassRoomId(Long classRoomId, Pageable pageable);
+    Page<TrainerSummary> findAvailableSummaries(int maxCourses, Pageable pageable);
 }
@@ -1,37 +1,53 @@
 package com.formation.service.impl;
 
+import java.util.List;
+
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.formation.entity.ClassRoom;
+import com.formation.pagination.Cursor;
+import com.formation.pagination.CursorPage;
 import com.formation.repository.ClassRoomRepository;
 import com.formation.service.ClassRoomService;
+import com.formation.uniqueness.RoomNumberFilter;
 
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class ClassRoomServiceImpl implements ClassRoomService {
 
     private final ClassRoomRepository classRoomRepository;
+    private final RoomNumberFilter roomNumberFilter;
 
-    public ClassRoomServiceImpl(ClassRoomRepository classRoomRepository) {
+    public ClassRoomServiceImpl(ClassRoomRepository classRoomRepository, RoomNumberFilter roomNumberFilter) {
         this.classRoomRepository = classRoomRepository;
+        this.roomNumberFilter = roomNumberFilter;
     }
 
     @Override
+    @Transactional
     public ClassRoom save(ClassRoom classRoom) {
         validateClassRoom(classRoom);
-        if (classRoomRepository.existsByRoomNumber(classRoom.getRoomNumber())) {
+        if (roomNumberFilter.mightContain(classRoom.getRoomNumber())
+                && classRoomRepository.existsByRoomNumber(classRoom.getRoomNumber())) {
             throw new EntityExistsException("Classroom with room number " + classRoom.getRoomNumber() + " already exists");
         }
+        roomNumberFilter.put(classRoom.getRoomNumber());
+        // A new room starts empty, the counters only move with student and trainer assignments
+        classRoom.setCurrentCapacity(0);
+        classRoom.setTrainerCount(0);
         return classRoomRepository.save(classRoom);
     }
 
+    // Primary reads, the classroom is cached in the second-level cache and tagged for If-None-Match
     @Override
+    @Transactional
     public ClassRoom findById(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("ID cannot be null");
@@ -39,6 +55,13 @@ public class ClassRoomServiceImpl implements ClassRoomService {
         return classRoomRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Classroom not found with id: " + id));
     }
+    
+    @Override
+    @Transactional
+    public Long findVersionById(Long id) {
+        return classRoomRepository.findVersionById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Classroom not found with id: " + id));
+    }
 
     @Override
     public Page<ClassRoom> findAll(Pageable pageable) {
@@ -49,19 +72,37 @@ public class ClassRoomServiceImpl implements ClassRoomService {
     }
 
     @Override
+    public CursorPage<ClassRoom> findAllAfter(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<ClassRoom> classRooms = cursor == null
+            ? classRoomRepository.seekFirst(limit)
+            : classRoomRepository.seekAfter(Cursor.decode(cursor).getId(), limit);
+        return CursorPage.of(classRooms, size, classRoom -> Cursor.encode(null, classRoom.getId()));
+    }
+
+    @Override
+    @Transactional
     public ClassRoom update(ClassRoom classRoom) {
         validateClassRoom(classRoom);
         ClassRoom existingClassRoom = findById(classRoom.getId());
+        if (classRoom.getVersion() == null) {
+            classRoom.setVersion(existingClassRoom.getVersion());
+        }
         
         if (!existingClassRoom.getRoomNumber().equals(classRoom.getRoomNumber()) && 
+            roomNumberFilter.mightContain(classRoom.getRoomNumber()) &&
             classRoomRepository.existsByRoomNumber(classRoom.getRoomNumber())) {
             throw new EntityExistsException("Classroom with room number " + classRoom.getRoomNumber() + " already exists");
         }
+        roomNumberFilter.put(classRoom.getRoomNumber());
         
+        classRoom.setCurrentCapacity(existingClassRoom.getCurrentCapacity());
+        classRoom.setTrainerCount(existingClassRoom.getTrainerCount());
         return classRoomRepository.save(classRoom);
     }
 
     @Override
+    @Transactional
     public void delete(Long id) {
         if (id == null) {
             throw new IllegalArgumentException("ID cannot be null");
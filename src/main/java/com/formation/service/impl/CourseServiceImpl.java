@@ -1,60 +1,131 @@
 package com.formation.service.impl;
 
 import java.time.LocalDate;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.formation.coalescing.Coalesced;
+import com.formation.config.CacheConfig;
+import com.formation.dto.CourseSummary;
 import com.formation.entity.Course;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.pagination.Cursor;
+import com.formation.pagination.CursorPage;
 import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+import com.formation.search.CourseSearchEngine;
 import com.formation.service.CourseService;
 import com.formation.utils.DateUtils;
 import javax.persistence.EntityNotFoundException;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class CourseServiceImpl implements CourseService {
     
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private CourseSearchEngine courseSearchEngine;
+    
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
     @Override
+    @Transactional
     public Course save(Course course) {
+        // Seats are only taken through enrollments
+        course.setCurrentCapacity(0);
         validateBusinessRules(course);
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        courseSearchEngine.index(saved);
+        evictListing(saved.getStatus());
+        return saved;
     }
     
+    // Reads that fill a cache or an ETag run read-write so they are served by the primary, a lagging
+    // replica would keep a stale course cached until the next write evicts it
     @Override
+    @Coalesced
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.COURSES, key = "#id")
     public Course findById(Long id) {
         return courseRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + id));
     }
     
+    @Override
+    @Transactional
+    public Long findVersionById(Long id) {
+        return courseRepository.findVersionById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Course not found with id: " + id));
+    }
+    
     @Override
     public Page<Course> findAll(Pageable pageable) {
         return courseRepository.findAll(pageable);
     }
     
     @Override
+    public CursorPage<Course> findAllAfter(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Course> courses;
+        if (cursor == null) {
+            courses = courseRepository.seekFirst(limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            courses = courseRepository.seekAfter(position.getDateKey(), position.getId(), limit);
+        }
+        return CursorPage.of(courses, size, course -> Cursor.encode(course.getStartDate(), course.getId()));
+    }
+    
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#course.id")
     public Course update(Course course) {
-        findById(course.getId());
+        Course existingCourse = findById(course.getId());
+        CourseStatus previousStatus = existingCourse.getStatus();
+        if (course.getVersion() == null) {
+            // Without If-Match the last write wins, a concurrent flush still fails on the version
+            course.setVersion(existingCourse.getVersion());
+        }
+        course.setCurrentCapacity(existingCourse.getCurrentCapacity());
         validateBusinessRules(course);
-        return courseRepository.save(course);
+        Course updated = courseRepository.save(course);
+        courseSearchEngine.index(updated);
+        evictListing(previousStatus);
+        evictListing(updated.getStatus());
+        return updated;
     }
     
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.COURSES, key = "#id")
     public void delete(Long id) {
         Course course = findById(id);
         if (!course.getStudents().isEmpty()) {
             throw new EntityNotFoundException("Cannot delete course with enrolled students");
         }
         courseRepository.deleteById(id);
+        courseSearchEngine.remove(id);
+        evictListing(course.getStatus());
     }
     
     @Override
     public Page<Course> search(String keyword, Pageable pageable) {
-        return courseRepository.search(keyword, pageable);
+        return courseSearchEngine.search(keyword, pageable);
     }
     
     @Override
@@ -74,11 +145,15 @@ public class CourseServiceImpl implements CourseService {
     }
     
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.UPCOMING_COURSES, key = "#pageable")
     public Page<Course> findUpcomingCourses(Pageable pageable) {
         return courseRepository.findUpcomingCourses(pageable);
     }
     
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.ONGOING_COURSES, key = "#pageable")
     public Page<Course> findOngoingCourses(Pageable pageable) {
         return courseRepository.findOngoingCourses(pageable);
     }
@@ -93,6 +168,92 @@ public class CourseServiceImpl implements CourseService {
         return courseRepository.findCoursesWithoutTrainer(pageable);
     }
     
+    @Override
+    @Transactional
+    public void enroll(Long courseId, Long studentId) {
+        if (!courseRepository.existsById(courseId)) {
+            throw new EntityNotFoundException("Course not found with id: " + courseId);
+        }
+        if (studentRepository.assignCourse(studentId, courseRepository.getById(courseId)) == 0) {
+            if (!studentRepository.existsById(studentId)) {
+                throw new EntityNotFoundException("Student not found with id: " + studentId);
+            }
+            throw new IllegalStateException("Student " + studentId + " is already enrolled in a course");
+        }
+        // Taken last so the hot course row stays locked only until commit
+        if (courseRepository.reserveSeat(courseId) == 0) {
+            throw new IllegalStateException("Course is full with id: " + courseId);
+        }
+    }
+    
+    @Override
+    @Transactional
+    public void unenroll(Long courseId, Long studentId) {
+        if (studentRepository.clearCourse(studentId, courseId) == 0) {
+            throw new EntityNotFoundException("Student " + studentId + " is not enrolled in course " + courseId);
+        }
+        courseRepository.releaseSeat(courseId);
+    }
+    
+    @Override
+    public Slice<Course> findAllSlice(Pageable pageable) {
+        return courseRepository.findAllBy(pageable);
+    }
+    
+    @Override
+    public Slice<Course> searchSlice(String keyword, Pageable pageable) {
+        return courseSearchEngine.searchSlice(keyword, pageable);
+    }
+    
+    @Override
+    public Slice<Course> findSliceByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        validateDateRange(startDate, endDate);
+        return courseRepository.findSliceByDateRange(startDate, endDate, pageable);
+    }
+    
+    @Override
+    public Page<CourseSummary> findSummaries(Pageable pageable) {
+        return courseRepository.findSummaries(pageable);
+    }
+    
+    @Override
+    public Slice<CourseSummary> findSummarySlice(Pageable pageable) {
+        return courseRepository.findSummarySlice(pageable);
+    }
+    
+    @Override
+    public Page<CourseSummary> findSummariesByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        validateDateRange(startDate, endDate);
+        return courseRepository.findSummariesByDateRange(startDate, endDate, pageable);
+    }
+    
+    @Override
+    public Slice<CourseSummary> findSummarySliceByDateRange(LocalDate startDate, LocalDate endDate, Pageable pageable) {
+        validateDateRange(startDate, endDate);
+        return courseRepository.findSummarySliceByDateRange(startDate, endDate, pageable);
+    }
+    
+    @Override
+    public Page<CourseSummary> findSummariesByTrainerId(Long trainerId, Pageable pageable) {
+        return courseRepository.findSummariesByTrainerId(trainerId, pageable);
+    }
+    
+    @Override
+    public Slice<CourseSummary> findSummarySliceByTrainerId(Long trainerId, Pageable pageable) {
+        return courseRepository.findSummarySliceByTrainerId(trainerId, pageable);
+    }
+    
+    // Only the listing that can contain a course with this status is dropped
+    private void evictListing(CourseStatus status) {
+        String cacheName = status == CourseStatus.PLANNED ? CacheConfig.UPCOMING_COURSES
+            : status == CourseStatus.IN_PROGRESS ? CacheConfig.ONGOING_COURSES
+            : null;
+        Cache cache = cacheName == null ? null : cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+    
     private void validateBusinessRules(Course course) {
         validateDateRange(course.getStartDate(), course.getEndDate());
         validateCapacity(course);
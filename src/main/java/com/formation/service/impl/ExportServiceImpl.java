@@ -0,0 +1,111 @@
+package com.formation.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.Trainer;
+import com.formation.exports.ExportFormat;
+import com.formation.exports.ExportWriter;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+import com.formation.repository.TrainerRepository;
+import com.formation.service.ExportService;
+
+@Service
+@Transactional(readOnly = true)
+public class ExportServiceImpl implements ExportService {
+
+    private static final String[] STUDENT_COLUMNS = {
+        "id", "lastName", "firstName", "email", "level", "registrationDate", "courseId", "classRoomId"};
+    private static final String[] COURSE_COLUMNS = {
+        "id", "title", "level", "minCapacity", "maxCapacity", "currentCapacity", "startDate", "endDate", "status",
+        "trainerId"};
+    private static final String[] TRAINER_COLUMNS = {
+        "id", "lastName", "firstName", "email", "specialty", "classRoomId"};
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Override
+    public void exportStudents(Long courseId, ExportFormat format, OutputStream out) {
+        try (Stream<Student> students = courseId == null
+                ? studentRepository.streamAll()
+                : studentRepository.streamByCourseId(courseId);
+                ExportWriter writer = new ExportWriter(out, format, STUDENT_COLUMNS)) {
+            for (Iterator<Student> it = students.iterator(); it.hasNext();) {
+                Student student = it.next();
+                writer.row(student.getId(), student.getLastName(), student.getFirstName(), student.getEmail(),
+                    student.getLevel(), student.getRegistrationDate(), idOf(student.getCourse()),
+                    idOf(student.getClassRoom()));
+                entityManager.detach(student);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void exportCourses(ExportFormat format, OutputStream out) {
+        try (Stream<Course> courses = courseRepository.streamAll();
+                ExportWriter writer = new ExportWriter(out, format, COURSE_COLUMNS)) {
+            for (Iterator<Course> it = courses.iterator(); it.hasNext();) {
+                Course course = it.next();
+                writer.row(course.getId(), course.getTitle(), course.getLevel(), course.getMinCapacity(),
+                    course.getMaxCapacity(), course.getCurrentCapacity(), course.getStartDate(), course.getEndDate(),
+                    course.getStatus(), idOf(course.getTrainer()));
+                entityManager.detach(course);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void exportTrainers(ExportFormat format, OutputStream out) {
+        try (Stream<Trainer> trainers = trainerRepository.streamAll();
+                ExportWriter writer = new ExportWriter(out, format, TRAINER_COLUMNS)) {
+            for (Iterator<Trainer> it = trainers.iterator(); it.hasNext();) {
+                Trainer trainer = it.next();
+                writer.row(trainer.getId(), trainer.getLastName(), trainer.getFirstName(), trainer.getEmail(),
+                    trainer.getSpecialty(), idOf(trainer.getClassRoom()));
+                entityManager.detach(trainer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Reading the id of a lazy association does not initialize the proxy
+    private static Long idOf(Course course) {
+        return course == null ? null : course.getId();
+    }
+
+    private static Long idOf(Trainer trainer) {
+        return trainer == null ? null : trainer.getId();
+    }
+
+    private static Long idOf(ClassRoom classRoom) {
+        return classRoom == null ? null : classRoom.getId();
+    }
+}
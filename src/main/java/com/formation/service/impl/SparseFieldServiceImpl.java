@@ -0,0 +1,160 @@
+package com.formation.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+
+import org.hibernate.annotations.QueryHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.formation.fields.FieldSelection;
+import com.formation.fields.SparseSliceWriter;
+import com.formation.search.CourseSearchEngine;
+import com.formation.search.StudentSearchEngine;
+import com.formation.service.SparseFieldService;
+
+@Service
+@Transactional(readOnly = true)
+public class SparseFieldServiceImpl implements SparseFieldService {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StudentSearchEngine studentSearchEngine;
+
+    @Autowired
+    private CourseSearchEngine courseSearchEngine;
+
+    @Override
+    public void writeSlice(FieldSelection fields, Pageable pageable, JsonFactory format, OutputStream out) {
+        writeSlice(fields, null, pageable, format, out);
+    }
+
+    @Override
+    public void writeStudentSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out) {
+        writeRows(fields, studentSearchEngine.searchIds(keyword, pageable), format, out);
+    }
+
+    @Override
+    public void writeCourseSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out) {
+        writeRows(fields, courseSearchEngine.searchIds(keyword, pageable), format, out);
+    }
+
+    @Override
+    public void writeTrainerSearch(String keyword, FieldSelection fields, Pageable pageable, JsonFactory format,
+            OutputStream out) {
+        String pattern = "%" + keyword + "%";
+        writeSlice(fields, (root, cb) -> cb.or(
+            cb.like(root.get("lastName"), pattern),
+            cb.like(root.get("firstName"), pattern),
+            cb.like(root.get("specialty"), pattern)), pageable, format, out);
+    }
+
+    // One row past the page tells whether another slice follows, no count query is run
+    private void writeSlice(FieldSelection fields, BiFunction<Root<?>, CriteriaBuilder, Predicate> filter,
+            Pageable pageable, JsonFactory format, OutputStream out) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<?> root = query.from(fields.getCatalog().getEntityType());
+        query.multiselect(select(root, fields.getPaths()));
+        if (filter != null) {
+            query.where(filter.apply(root, cb));
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+        TypedQuery<Tuple> rows = entityManager.createQuery(query)
+            .setFirstResult((int) pageable.getOffset())
+            .setMaxResults(pageable.getPageSize() + 1)
+            .setHint(QueryHints.FETCH_SIZE, pageable.getPageSize() + 1);
+
+        try (Stream<Tuple> stream = rows.getResultStream();
+                SparseSliceWriter writer = new SparseSliceWriter(format, out, fields.getNames())) {
+            Iterator<Tuple> it = stream.iterator();
+            for (int written = 0; written < pageable.getPageSize() && it.hasNext(); written++) {
+                writer.row(it.next().toArray());
+            }
+            writer.finish(pageable.getPageNumber(), pageable.getPageSize(), it.hasNext());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The search engines decide the page, the columns are read by id and written in their order
+    private void writeRows(FieldSelection fields, Page<Long> ids, JsonFactory format, OutputStream out) {
+        Map<Object, Object[]> rows = new HashMap<>();
+        if (ids.hasContent()) {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<?> root = query.from(fields.getCatalog().getEntityType());
+            List<Selection<?>> selections = new ArrayList<>();
+            selections.add(root.get("id"));
+            selections.addAll(select(root, fields.getPaths()));
+            query.multiselect(selections).where(root.get("id").in(ids.getContent()));
+            for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+                Object[] values = tuple.toArray();
+                rows.put(values[0], Arrays.copyOfRange(values, 1, values.length));
+            }
+        }
+
+        try (SparseSliceWriter writer = new SparseSliceWriter(format, out, fields.getNames())) {
+            for (Long id : ids) {
+                Object[] row = rows.get(id);
+                if (row != null) {
+                    writer.row(row);
+                }
+            }
+            writer.finish(ids.getNumber(), ids.getSize(), ids.hasNext());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // An association id is read from the foreign key, other attributes from one left join per association
+    private static List<Selection<?>> select(Root<?> root, List<String> paths) {
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String path : paths) {
+            int dot = path.indexOf('.');
+            if (dot < 0) {
+                selections.add(root.get(path));
+                continue;
+            }
+            String association = path.substring(0, dot);
+            String attribute = path.substring(dot + 1);
+            if ("id".equals(attribute)) {
+                selections.add(root.get(association).get(attribute));
+            } else {
+                selections.add(joins.computeIfAbsent(association, name -> root.join(name, JoinType.LEFT))
+                    .get(attribute));
+            }
+        }
+        return selections;
+    }
+}
@@ -0,0 +1,168 @@
+package com.formation.service.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.entity.Student;
+import com.formation.imports.CsvReader;
+import com.formation.imports.ImportReport;
+import com.formation.repository.StudentRepository;
+import com.formation.search.StudentSearchEngine;
+import com.formation.service.StudentImportService;
+
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+public class StudentImportServiceImpl implements StudentImportService {
+
+    static final int CHUNK_SIZE = 500;
+    private static final List<String> COLUMNS = Arrays.asList("lastName", "firstName", "email", "level");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentSearchEngine studentSearchEngine;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Override
+    public ImportReport importCsv(Reader source) {
+        ImportReport report = new ImportReport();
+        Set<String> emailsInFile = new HashSet<>();
+        try (CsvReader csv = new CsvReader(source)) {
+            Map<String, Integer> columns = header(csv.next());
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            List<String> fields;
+            while ((fields = csv.next()) != null) {
+                if (fields.size() == 1 && fields.get(0).trim().isEmpty()) {
+                    continue;
+                }
+                report.rowRead();
+                Row row = validate(csv.getRecordLine(), fields, columns, emailsInFile, report);
+                if (row != null) {
+                    chunk.add(row);
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+            importChunk(chunk, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        report.getErrors().sort(Comparator.comparingLong(ImportReport.RowError::getLine));
+        log.info("Student import: {} rows, {} imported, {} rejected",
+            report.getTotalRows(), report.getImported(), report.getRejected());
+        return report;
+    }
+
+    private Map<String, Integer> header(List<String> fields) {
+        if (fields == null) {
+            throw new IllegalArgumentException("CSV body is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            // Spreadsheet exports often start with a byte order mark
+            columns.put(fields.get(i).replace("\uFEFF", "").trim(), i);
+        }
+        if (!columns.keySet().containsAll(COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must contain the columns " + String.join(",", COLUMNS));
+        }
+        return columns;
+    }
+
+    private Row validate(long line, List<String> fields, Map<String, Integer> columns,
+            Set<String> emailsInFile, ImportReport report) {
+        if (fields.size() < columns.size()) {
+            report.reject(line, "Expected " + columns.size() + " fields but found " + fields.size());
+            return null;
+        }
+        Student student = Student.builder()
+            .lastName(field(fields, columns, "lastName"))
+            .firstName(field(fields, columns, "firstName"))
+            .email(field(fields, columns, "email"))
+            .level(field(fields, columns, "level"))
+            .build();
+        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        if (!violations.isEmpty()) {
+            report.reject(line, violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; ")));
+            return null;
+        }
+        if (!emailsInFile.add(student.getEmail())) {
+            report.reject(line, "Email appears more than once in the file: " + student.getEmail());
+            return null;
+        }
+        return new Row(line, student);
+    }
+
+    private void importChunk(List<Row> chunk, ImportReport report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(studentRepository.findExistingEmails(
+            chunk.stream().map(row -> row.student.getEmail()).collect(Collectors.toList())));
+        List<Row> fresh = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (existing.contains(row.student.getEmail())) {
+                report.reject(row.line, "Student with email already exists: " + row.student.getEmail());
+            } else {
+                fresh.add(row);
+            }
+        }
+        if (fresh.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Student> saved = studentRepository.saveAll(
+                    fresh.stream().map(row -> row.student).collect(Collectors.toList()));
+                saved.forEach(studentSearchEngine::index);
+            });
+            report.imported(fresh.size());
+        } catch (DataAccessException e) {
+            String reason = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            fresh.forEach(row -> report.reject(row.line, reason));
+        }
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        String value = fields.get(columns.get(column)).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    @AllArgsConstructor
+    private static class Row {
+        private final long line;
+        private final Student student;
+    }
+}
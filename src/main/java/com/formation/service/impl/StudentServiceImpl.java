@@ -1,56 +1,118 @@
 package com.formation.service.impl;
 
+import java.util.List;
+import java.util.Objects;
+
+import javax.persistence.EntityNotFoundException;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
+import com.formation.coalescing.Coalesced;
+import com.formation.dto.StudentSummary;
 import com.formation.entity.Student;
+import com.formation.pagination.Cursor;
+import com.formation.pagination.CursorPage;
+import com.formation.repository.ClassRoomRepository;
+import com.formation.repository.CourseRepository;
 import com.formation.repository.StudentRepository;
+import com.formation.search.StudentSearchEngine;
 import com.formation.service.StudentService;
 
-import javax.validation.Valid;
-import javax.validation.constraints.NotNull;
-
 @Service
-@Transactional
+@Transactional(readOnly = true)
 @Validated
 public class StudentServiceImpl implements StudentService {
     
     @Autowired
     private StudentRepository studentRepository;
     
+    @Autowired
+    private StudentSearchEngine studentSearchEngine;
+    
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+    
+    @Autowired
+    private CourseRepository courseRepository;
+    
     @Override
-    public Student save(@Valid @NotNull Student student) {
-        return studentRepository.save(student);
+    @Transactional
+    public Student save(Student student) {
+        Student current = student.getId() == null ? null
+            : studentRepository.findForUpdateById(student.getId()).orElse(null);
+        moveOccupancy(classRoomId(current), classRoomId(student));
+        moveSeat(courseId(current), courseId(student));
+        Student saved = studentRepository.save(student);
+        studentSearchEngine.index(saved);
+        return saved;
     }
     
+    // Read from the primary, the body and its ETag must not go back to a version the client has already seen
     @Override
-    public Student findById(@NotNull Long id) {
+    @Transactional
+    public Student findById(Long id) {
         return studentRepository.findById(id)
             .orElse(null);
     }
     
+    @Override
+    @Transactional
+    public Long findVersionById(Long id) {
+        return studentRepository.findVersionById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Student not found with id: " + id));
+    }
+    
     @Override
     public Page<Student> findAll(Pageable pageable) {
         return studentRepository.findAll(pageable);
     }
     
     @Override
-    public Student update(@Valid @NotNull Student student) {
-        return studentRepository.save(student);
+    public CursorPage<Student> findAllAfter(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Student> students;
+        if (cursor == null) {
+            students = studentRepository.seekFirst(limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            students = studentRepository.seekAfter(position.getKey(), position.getId(), limit);
+        }
+        return CursorPage.of(students, size, student -> Cursor.encode(student.getLastName(), student.getId()));
     }
     
     @Override
-    public void delete(@NotNull Long id) {
-        studentRepository.deleteById(id);
+    @Transactional
+    public Student update(Student student) {
+        Student current = lockCurrent(student);
+        moveOccupancy(classRoomId(current), classRoomId(student));
+        moveSeat(courseId(current), courseId(student));
+        Student updated = studentRepository.save(student);
+        studentSearchEngine.index(updated);
+        return updated;
+    }
+    
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        Student current = studentRepository.findForUpdateById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Student not found with id: " + id));
+        studentRepository.delete(current);
+        moveOccupancy(classRoomId(current), null);
+        moveSeat(courseId(current), null);
+        studentSearchEngine.remove(id);
     }
     
     @Override
     public Page<Student> search(String keyword, Pageable pageable) {
-        return studentRepository.search(keyword, pageable);
+        return studentSearchEngine.search(keyword, pageable);
     }
     
     @Override
@@ -59,6 +121,7 @@ public class StudentServiceImpl implements StudentService {
     }
     
     @Override
+    @Coalesced
     public Page<Student> findByCourseId(Long courseId, Pageable pageable) {
         return studentRepository.findByCourseId(courseId, pageable);
     }
@@ -72,4 +135,110 @@ public class StudentServiceImpl implements StudentService {
     public Page<Student> findByLastNameAndFirstName(String lastName, String firstName, Pageable pageable) {
         return studentRepository.findByLastNameAndFirstName(lastName, firstName, pageable);
     }
+    
+    @Override
+    public Slice<Student> findAllSlice(Pageable pageable) {
+        return studentRepository.findAllBy(pageable);
+    }
+    
+    @Override
+    public Slice<Student> searchSlice(String keyword, Pageable pageable) {
+        return studentSearchEngine.searchSlice(keyword, pageable);
+    }
+    
+    @Override
+    public Slice<Student> findSliceByLevel(String level, Pageable pageable) {
+        return studentRepository.findSliceByLevel(level, pageable);
+    }
+    
+    @Override
+    public Page<StudentSummary> findSummaries(Pageable pageable) {
+        return studentRepository.findSummaries(pageable);
+    }
+    
+    @Override
+    public Slice<StudentSummary> findSummarySlice(Pageable pageable) {
+        return studentRepository.findSummarySlice(pageable);
+    }
+    
+    @Override
+    public Page<StudentSummary> findSummariesByLevel(String level, Pageable pageable) {
+        return studentRepository.findSummariesByLevel(level, pageable);
+    }
+    
+    @Override
+    public Slice<StudentSummary> findSummarySliceByLevel(String level, Pageable pageable) {
+        return studentRepository.findSummarySliceByLevel(level, pageable);
+    }
+    
+    @Override
+    @Coalesced
+    public Page<StudentSummary> findSummariesByCourseId(Long courseId, Pageable pageable) {
+        return studentRepository.findSummariesByCourseId(courseId, pageable);
+    }
+    
+    @Override
+    @Coalesced
+    public Slice<StudentSummary> findSummarySliceByCourseId(Long courseId, Pageable pageable) {
+        return studentRepository.findSummarySliceByCourseId(courseId, pageable);
+    }
+    
+    @Override
+    public Page<StudentSummary> findSummariesByClassRoomId(Long classRoomId, Pageable pageable) {
+        return studentRepository.findSummariesByClassRoomId(classRoomId, pageable);
+    }
+    
+    @Override
+    public Slice<StudentSummary> findSummarySliceByClassRoomId(Long classRoomId, Pageable pageable) {
+        return studentRepository.findSummarySliceByClassRoomId(classRoomId, pageable);
+    }
+    
+    @Override
+    public Page<StudentSummary> findSummariesByName(String lastName, String firstName, Pageable pageable) {
+        return studentRepository.findSummariesByName(lastName, firstName, pageable);
+    }
+    
+    // The stored row, locked until commit; a version that is no longer current fails before any counter moves
+    private Student lockCurrent(Student student) {
+        Student current = studentRepository.findForUpdateById(student.getId())
+            .orElseThrow(() -> new EntityNotFoundException("Student not found with id: " + student.getId()));
+        if (student.getVersion() == null) {
+            student.setVersion(current.getVersion());
+        } else if (!student.getVersion().equals(current.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Student.class, student.getId());
+        }
+        return current;
+    }
+    
+    private static Long classRoomId(Student student) {
+        return student == null || student.getClassRoom() == null ? null : student.getClassRoom().getId();
+    }
+    
+    private static Long courseId(Student student) {
+        return student == null || student.getCourse() == null ? null : student.getCourse().getId();
+    }
+    
+    private void moveSeat(Long fromCourseId, Long toCourseId) {
+        if (Objects.equals(fromCourseId, toCourseId)) {
+            return;
+        }
+        if (toCourseId != null && courseRepository.reserveSeat(toCourseId) == 0) {
+            throw new IllegalStateException("Course is full or does not exist with id: " + toCourseId);
+        }
+        if (fromCourseId != null) {
+            courseRepository.releaseSeat(fromCourseId);
+        }
+    }
+    
+    private void moveOccupancy(Long fromClassRoomId, Long toClassRoomId) {
+        if (Objects.equals(fromClassRoomId, toClassRoomId)) {
+            return;
+        }
+        if (toClassRoomId != null && classRoomRepository.incrementOccupancy(toClassRoomId) == 0) {
+            throw new IllegalStateException("Classroom is full or does not exist with id: " + toClassRoomId);
+        }
+        if (fromClassRoomId != null) {
+            classRoomRepository.decrementOccupancy(fromClassRoomId);
+        }
+    }
 }
\ No newline at end of file
@@ -1,62 +1,112 @@
 package com.formation.service.impl;
 
+import java.util.List;
+import java.util.Objects;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import com.formation.dto.TrainerSummary;
 import com.formation.entity.Trainer;
+import com.formation.pagination.Cursor;
+import com.formation.pagination.CursorPage;
+import com.formation.repository.ClassRoomRepository;
 import com.formation.repository.TrainerRepository;
 import com.formation.service.TrainerService;
+import com.formation.uniqueness.TrainerEmailFilter;
 import javax.persistence.EntityNotFoundException;
 
 @Service
-@Transactional
+@Transactional(readOnly = true)
 public class TrainerServiceImpl implements TrainerService {
     
     @Autowired
     private TrainerRepository trainerRepository;
     
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+    
+    @Autowired
+    private TrainerEmailFilter trainerEmailFilter;
+    
     @Override
+    @Transactional
     public Trainer save(Trainer trainer) {
         validateBusinessRules(trainer);
-        if (trainerRepository.existsByEmail(trainer.getEmail())) {
+        if (trainerEmailFilter.mightContain(trainer.getEmail()) && trainerRepository.existsByEmail(trainer.getEmail())) {
             throw new EntityNotFoundException("A trainer with email " + trainer.getEmail() + " already exists");
         }
+        trainerEmailFilter.put(trainer.getEmail());
+        moveTrainerCount(trainer.getId() == null ? null : trainerRepository.findClassRoomIdById(trainer.getId()),
+            classRoomId(trainer));
         return trainerRepository.save(trainer);
     }
     
+    // Primary reads, the trainer is cached in the second-level cache and tagged for If-None-Match
     @Override
+    @Transactional
     public Trainer findById(Long id) {
         return trainerRepository.findById(id)
             .orElseThrow(() -> new EntityNotFoundException("Trainer not found with id: " + id));
     }
     
+    @Override
+    @Transactional
+    public Long findVersionById(Long id) {
+        return trainerRepository.findVersionById(id)
+            .orElseThrow(() -> new EntityNotFoundException("Trainer not found with id: " + id));
+    }
+    
     @Override
     public Page<Trainer> findAll(Pageable pageable) {
         return trainerRepository.findAll(pageable);
     }
     
     @Override
+    public CursorPage<Trainer> findAllAfter(String cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Trainer> trainers;
+        if (cursor == null) {
+            trainers = trainerRepository.seekFirst(limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            trainers = trainerRepository.seekAfter(position.getKey(), position.getId(), limit);
+        }
+        return CursorPage.of(trainers, size, trainer -> Cursor.encode(trainer.getLastName(), trainer.getId()));
+    }
+    
+    @Override
+    @Transactional
     public Trainer update(Trainer trainer) {
         Trainer existingTrainer = findById(trainer.getId());
+        if (trainer.getVersion() == null) {
+            trainer.setVersion(existingTrainer.getVersion());
+        }
         
         if (!existingTrainer.getEmail().equals(trainer.getEmail()) && 
+            trainerEmailFilter.mightContain(trainer.getEmail()) &&
             trainerRepository.existsByEmail(trainer.getEmail())) {
             throw new EntityNotFoundException("A trainer with email " + trainer.getEmail() + " already exists");
         }
+        trainerEmailFilter.put(trainer.getEmail());
         
         validateBusinessRules(trainer);
+        moveTrainerCount(classRoomId(existingTrainer), classRoomId(trainer));
         return trainerRepository.save(trainer);
     }
     
     @Override
+    @Transactional
     public void delete(Long id) {
         Trainer trainer = findById(id);
         if (!trainer.getCourses().isEmpty()) {
             throw new EntityNotFoundException("Cannot delete trainer with assigned courses");
         }
         trainerRepository.deleteById(id);
+        moveTrainerCount(classRoomId(trainer), null);
     }
     
     @Override
@@ -94,6 +144,57 @@ public class TrainerServiceImpl implements TrainerService {
         return trainerRepository.findTrainersWithoutCourses(pageable);
     }
     
+    @Override
+    public Page<TrainerSummary> findSummaries(Pageable pageable) {
+        return trainerRepository.findSummaries(pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> searchSummaries(String keyword, Pageable pageable) {
+        return trainerRepository.searchSummaries(keyword, pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> findSummariesByEmail(String email, Pageable pageable) {
+        return trainerRepository.findSummariesByEmail(email, pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> findSummariesBySpecialty(String specialty, Pageable pageable) {
+        return trainerRepository.findSummariesBySpecialty(specialty, pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> findSummariesByName(String lastName, String firstName, Pageable pageable) {
+        return trainerRepository.findSummariesByName(lastName, firstName, pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> findSummariesByClassRoomId(Long classRoomId, Pageable pageable) {
+        return trainerRepository.findSummariesByClassRoomId(classRoomId, pageable);
+    }
+    
+    @Override
+    public Page<TrainerSummary> findAvailableSummaries(int maxCourses, Pageable pageable) {
+        return trainerRepository.findAvailableSummaries(maxCourses, pageable);
+    }
+    
+    private static Long classRoomId(Trainer trainer) {
+        return trainer.getClassRoom() == null ? null : trainer.getClassRoom().getId();
+    }
+    
+    private void moveTrainerCount(Long fromClassRoomId, Long toClassRoomId) {
+        if (Objects.equals(fromClassRoomId, toClassRoomId)) {
+            return;
+        }
+        if (toClassRoomId != null && classRoomRepository.incrementTrainerCount(toClassRoomId) == 0) {
+            throw new EntityNotFoundException("Classroom not found with id: " + toClassRoomId);
+        }
+        if (fromClassRoomId != null) {
+            classRoomRepository.decrementTrainerCount(fromClassRoomId);
+        }
+    }
+    
     private void validateBusinessRules(Trainer trainer) {
         if (trainer.getCourses() != null && trainer.getCourses().size() > 5) {
             throw new EntityNotFoundException("A trainer cannot have more than 5 courses");
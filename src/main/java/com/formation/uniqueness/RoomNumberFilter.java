@@ -0,0 +1,29 @@
+package com.formation.uniqueness;
+
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.repository.ClassRoomRepository;
+
+@Component
+public class RoomNumberFilter extends UniqueValueFilter {
+
+    private final ClassRoomRepository classRoomRepository;
+
+    public RoomNumberFilter(ClassRoomRepository classRoomRepository, TransactionTemplate transactionTemplate) {
+        super("Classroom number", transactionTemplate);
+        this.classRoomRepository = classRoomRepository;
+    }
+
+    @Override
+    protected long countValues() {
+        return classRoomRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamValues() {
+        return classRoomRepository.streamRoomNumbers();
+    }
+}
@@ -0,0 +1,29 @@
+package com.formation.uniqueness;
+
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.repository.TrainerRepository;
+
+@Component
+public class TrainerEmailFilter extends UniqueValueFilter {
+
+    private final TrainerRepository trainerRepository;
+
+    public TrainerEmailFilter(TrainerRepository trainerRepository, TransactionTemplate transactionTemplate) {
+        super("Trainer email", transactionTemplate);
+        this.trainerRepository = trainerRepository;
+    }
+
+    @Override
+    protected long countValues() {
+        return trainerRepository.count();
+    }
+
+    @Override
+    protected Stream<String> streamValues() {
+        return trainerRepository.streamEmails();
+    }
+}
@@ -0,0 +1,149 @@
+package com.formation.uniqueness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bloom filter over the values of a unique column, used to skip the {@code existsBy} query when a
+ * value has certainly never been written. Every value a service is about to save must go through
+ * {@link #put(String)} first, values of deleted or renamed rows simply stay until the next rebuild.
+ * The filter only ever answers "maybe" for a committed value, the unique constraint remains the
+ * final authority for writes that bypass the services.
+ *
+ * A filter that fills past its size is rebuilt larger on its own thread, the save that crossed the
+ * threshold does not wait for the table to be read.
+ */
+@Slf4j
+public abstract class UniqueValueFilter {
+
+    static final int MIN_CAPACITY = 10_000;
+    static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final String name;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService rebuilds;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Object lock = new Object();
+    private volatile BloomFilter filter;
+    private List<String> writtenDuringRebuild;
+
+    protected UniqueValueFilter(String name, TransactionTemplate transactionTemplate) {
+        this.name = name;
+        this.transactionTemplate = transactionTemplate;
+        CustomizableThreadFactory threads = new CustomizableThreadFactory(getClass().getSimpleName() + "-rebuild-");
+        threads.setDaemon(true);
+        this.rebuilds = Executors.newSingleThreadExecutor(threads);
+    }
+
+    /**
+     * Count of the values currently stored, used to size the filter.
+     */
+    protected abstract long countValues();
+
+    /**
+     * Every value currently stored, read inside a transaction that is not read-only so that it is
+     * served by the primary rather than a replica that may lag behind the saves.
+     */
+    protected abstract Stream<String> streamValues();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (lock) {
+            writtenDuringRebuild = new ArrayList<>();
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void close() {
+        rebuilds.shutdownNow();
+    }
+
+    // Runs with rebuilding set and writtenDuringRebuild started
+    private void reload() {
+        try {
+            BloomFilter next = transactionTemplate.execute(status -> {
+                BloomFilter seeded = new BloomFilter(Math.max(MIN_CAPACITY, 2 * countValues()), FALSE_POSITIVE_RATE);
+                try (Stream<String> values = streamValues()) {
+                    values.forEach(seeded::put);
+                }
+                return seeded;
+            });
+            synchronized (lock) {
+                // Values saved while the table was being read may be missing from the snapshot
+                writtenDuringRebuild.forEach(next::put);
+                writtenDuringRebuild = null;
+                filter = next;
+            }
+            log.info("{} filter built with {} entries", name, next.getInsertions());
+        } finally {
+            synchronized (lock) {
+                writtenDuringRebuild = null;
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * {@code false} when the value has certainly never been put, {@code true} when it may have been
+     * or while the filter is not built yet.
+     */
+    public boolean mightContain(String value) {
+        BloomFilter current = filter;
+        return current == null || value == null || current.mightContain(value);
+    }
+
+    public void put(String value) {
+        if (value == null) {
+            return;
+        }
+        boolean grow = false;
+        synchronized (lock) {
+            BloomFilter current = filter;
+            if (current != null) {
+                current.put(value);
+                if (current.isSaturated() && rebuilding.compareAndSet(false, true)) {
+                    // Started here so the value, whose transaction may not have committed yet, is carried over
+                    writtenDuringRebuild = new ArrayList<>();
+                    grow = true;
+                }
+            }
+            if (writtenDuringRebuild != null) {
+                writtenDuringRebuild.add(value);
+            }
+        }
+        if (grow) {
+            rebuilds.execute(() -> {
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    log.error("{} filter rebuild failed, keeping the saturated one", name, e);
+                }
+            });
+        }
+    }
+
+    public boolean isReady() {
+        return filter != null;
+    }
+
+    boolean isRebuilding() {
+        return rebuilding.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.formation.utils;
+
+import java.util.Optional;
+
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+public class ETags {
+    /**
+     * Strong entity tag for one row, built from its id and optimistic lock version.
+     */
+    public static String of(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Version named by an {@code If-Match} header for the given row. Empty when none of the listed
+     * tags was issued for that row, weak tags never match as If-Match requires strong comparison.
+     */
+    public static Optional<Long> versionOf(String ifMatch, Long id) {
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+                try {
+                    return Optional.of(Long.parseLong(tag.substring(prefix.length(), tag.length() - 1)));
+                } catch (NumberFormatException e) {
+                    // Not one of ours, try the next tag
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header already names the tag. GET compares weakly, so a
+     * {@code W/} prefix still matches.
+     */
+    public static boolean matchesAny(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if ("*".equals(tag) || tag.equals(eTag) || tag.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the header is the {@code *} wildcard, which any existing row satisfies.
+     */
+    public static boolean isWildcard(String ifMatch) {
+        return "*".equals(ifMatch.trim());
+    }
+}
@@ -0,0 +1,74 @@
+package com.formation.bulkhead;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.formation.exception.ServiceUnavailableException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class BulkheadTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Bulkhead search = new Bulkhead("search", 2, 3, 1, registry);
+    private final Bulkhead report = new Bulkhead("report", 1, 1, 1, registry);
+
+    @AfterEach
+    void tearDown() {
+        search.shutdown();
+        report.shutdown();
+    }
+
+    @Test
+    void submit_ShouldRunOffTheCallingThread() throws Exception {
+        String thread = search.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("search-bulkhead-"), thread);
+    }
+
+    @Test
+    void submit_WhenSaturated_ShouldRejectWithoutStarvingOtherBulkheads() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Boolean>> accepted = new ArrayList<>();
+        // Two running, three queued
+        for (int i = 0; i < 5; i++) {
+            accepted.add(search.submit(() -> await(release)));
+        }
+
+        CompletableFuture<Boolean> rejected = search.submit(() -> true);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> rejected.get(5, TimeUnit.SECONDS));
+        ServiceUnavailableException shed = assertInstanceOf(ServiceUnavailableException.class, failure.getCause());
+        assertEquals(1, shed.getRetryAfterSeconds());
+        assertEquals(3.0, registry.get("executor.queued").tag("name", "search").gauge().value());
+
+        assertEquals("report", report.submit(() -> "report").get(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        for (CompletableFuture<Boolean> future : accepted) {
+            assertTrue(future.get(5, TimeUnit.SECONDS));
+        }
+        // The timers are recorded once the task has returned, after its future completed
+        search.shutdown();
+        assertTrue(search.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(5, registry.get("executor").tag("name", "search").timer().count());
+        assertEquals(5, registry.get("executor.idle").tag("name", "search").timer().count());
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.formation.coalescing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class SingleFlightTest {
+
+    private static final int FOLLOWERS = 16;
+
+    private final SingleFlight<String, Object> flights = new SingleFlight<>();
+
+    @Test
+    void execute_ShouldShareTheInFlightLoadWithConcurrentCallers() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        ConcurrentLinkedQueue<Object> results = new ConcurrentLinkedQueue<>();
+
+        Thread leader = start(() -> results.add(flights.execute("course-1", () -> {
+            loads.incrementAndGet();
+            release.await();
+            return value;
+        })));
+        awaitInFlight();
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(start(() -> results.add(flights.execute("course-1", () -> {
+                loads.incrementAndGet();
+                return new Object();
+            }))));
+        }
+        for (Thread follower : followers) {
+            awaitWaiting(follower);
+        }
+        release.countDown();
+        leader.join();
+        for (Thread follower : followers) {
+            follower.join();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(FOLLOWERS + 1, results.size());
+        results.forEach(result -> assertSame(value, result));
+        assertEquals(0, flights.inFlightCount());
+    }
+
+    @Test
+    void execute_ShouldShareTheFailureAndLetTheNextCallRetry() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        Thread leader = start(() -> {
+            try {
+                flights.execute("course-1", () -> {
+                    release.await();
+                    throw failure;
+                });
+            } catch (IllegalStateException e) {
+                errors.add(e);
+            }
+        });
+        awaitInFlight();
+        Thread follower = start(() -> {
+            try {
+                flights.execute("course-1", Object::new);
+            } catch (IllegalStateException e) {
+                errors.add(e);
+            }
+        });
+        awaitWaiting(follower);
+        release.countDown();
+        leader.join();
+        follower.join();
+
+        assertEquals(2, errors.size());
+        errors.forEach(error -> assertSame(failure, error));
+        assertEquals("fresh", flights.execute("course-1", () -> "fresh"));
+    }
+
+    @Test
+    void execute_ShouldNotShareAcrossKeysOrOverTime() throws Throwable {
+        AtomicInteger loads = new AtomicInteger();
+
+        flights.execute("course-1", loads::incrementAndGet);
+        flights.execute("course-1", loads::incrementAndGet);
+        flights.execute("course-2", loads::incrementAndGet);
+
+        assertEquals(3, loads.get());
+    }
+
+    private interface Body {
+        void run() throws Throwable;
+    }
+
+    private static Thread start(Body body) {
+        Thread thread = new Thread(() -> {
+            try {
+                body.run();
+            } catch (Throwable e) {
+                throw new AssertionError(e);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        while (flights.inFlightCount() == 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    // A follower parks inside the shared future, nowhere else
+    private static void awaitWaiting(Thread thread) throws InterruptedException {
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+    }
+}
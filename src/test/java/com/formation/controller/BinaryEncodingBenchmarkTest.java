@@ -0,0 +1,206 @@
+package com.formation.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.ClassRoomRepository;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the bytes and encode time of the negotiated encodings on a page of student summaries
+ * and on pages of the student and course entities.
+ */
+@Slf4j
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:encodings;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BinaryEncodingBenchmarkTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    private static final int COURSES = 20;
+    private static final int CLASSROOMS = 10;
+    private static final int STUDENTS = 200;
+    private static final int ROUNDS = 200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    private List<Course> courses;
+    private List<ClassRoom> classRooms;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        List<Course> newCourses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            newCourses.add(Course.builder()
+                    .title("Encoding " + i)
+                    .level(i % 2 == 0 ? "Beginner" : "Advanced")
+                    .prerequisites("None")
+                    .minCapacity(1)
+                    .maxCapacity(STUDENTS)
+                    .startDate(LocalDate.now().plusDays(7))
+                    .endDate(LocalDate.now().plusDays(37))
+                    .status(CourseStatus.PLANNED)
+                    .build());
+        }
+        courses = courseRepository.saveAll(newCourses);
+
+        List<ClassRoom> newClassRooms = new ArrayList<>();
+        for (int i = 0; i < CLASSROOMS; i++) {
+            newClassRooms.add(ClassRoom.builder()
+                    .name("Encoding " + i)
+                    .roomNumber("E" + i)
+                    .maxCapacity(STUDENTS)
+                    .build());
+        }
+        classRooms = classRoomRepository.saveAll(newClassRooms);
+
+        List<Student> newStudents = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            newStudents.add(Student.builder()
+                    .lastName("Encoder")
+                    .firstName("Reader")
+                    .email("encoding" + i + "@wire.test")
+                    .level(i % 3 == 0 ? "Advanced" : "Beginner")
+                    .course(courses.get(i % COURSES))
+                    .classRoom(classRooms.get(i % CLASSROOMS))
+                    .build());
+        }
+        students = studentRepository.saveAll(newStudents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch(students);
+        courseRepository.deleteAllInBatch(courses);
+        classRoomRepository.deleteAllInBatch(classRooms);
+    }
+
+    @Test
+    void studentList_ShouldFollowTheAcceptHeader() throws Exception {
+        ObjectMapper json = jsonConverter.getObjectMapper();
+        JsonNode expected = json.readTree(mockMvc.perform(get("/api/students").param("size", "50"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray());
+
+        for (Encoding binary : binaryConverters()) {
+            MvcResult result = mockMvc.perform(get("/api/students").param("size", "50").accept(binary.type))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(binary.type))
+                    .andReturn();
+            byte[] body = result.getResponse().getContentAsByteArray();
+
+            assertEquals(expected, binary.mapper.readTree(body));
+            assertTrue(body.length < json.writeValueAsBytes(expected).length, binary.type.toString());
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void binaryEncodings_ShouldBeSmallerOnTheWire() throws Exception {
+        Pageable page = PageRequest.of(0, 100, Sort.by("email"));
+        encode("student summaries", studentRepository.findSummarySlice(page));
+        encode("student entities", studentRepository.findAllBy(page));
+        encode("course entities", courseRepository.findAllBy(PageRequest.of(0, COURSES, Sort.by("title"))));
+    }
+
+    private void encode(String payload, Object value) throws Exception {
+        ObjectMapper json = jsonConverter.getObjectMapper();
+        long jsonBytes = json.writeValueAsBytes(value).length;
+        long jsonNanos = measure(json, value);
+        StringBuilder report = new StringBuilder()
+            .append(payload).append(": json ").append(jsonBytes).append(" bytes ").append(jsonNanos / 1000).append(" us");
+
+        for (Encoding binary : binaryConverters()) {
+            byte[] body = binary.mapper.writeValueAsBytes(value);
+            long nanos = measure(binary.mapper, value);
+            report.append(", ").append(binary.type.getSubtype()).append(' ').append(body.length)
+                .append(" bytes ").append(nanos / 1000).append(" us");
+
+            assertEquals(json.readTree(json.writeValueAsBytes(value)), binary.mapper.readTree(body));
+            assertTrue(body.length < jsonBytes, payload + " as " + binary.type);
+        }
+        log.info(report.toString());
+    }
+
+    private static long measure(ObjectMapper mapper, Object value) throws Exception {
+        // Warm up the serializers before measuring
+        for (int round = 0; round < ROUNDS; round++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            mapper.writeValueAsBytes(value);
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private List<Encoding> binaryConverters() {
+        return List.of(
+            new Encoding(MediaType.APPLICATION_CBOR, cborConverter.getObjectMapper()),
+            new Encoding(SMILE, smileConverter.getObjectMapper()));
+    }
+
+    private static class Encoding {
+        private final MediaType type;
+        private final ObjectMapper mapper;
+
+        Encoding(MediaType type, ObjectMapper mapper) {
+            this.type = type;
+            this.mapper = mapper;
+        }
+    }
+}
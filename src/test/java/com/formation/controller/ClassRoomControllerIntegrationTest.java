@@ -3,6 +3,7 @@ package com.formation.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.formation.entity.ClassRoom;
 import com.formation.service.ClassRoomService;
+import com.formation.utils.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,12 +17,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.HashSet;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +35,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles("test")
 class ClassRoomControllerIntegrationTest {
 
+    private static final Long VERSION = 3L;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -79,30 +85,47 @@ class ClassRoomControllerIntegrationTest {
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testClassRoom.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testClassRoom.getId()));
     }
 
     @Test
     void getClassRoomById_WhenExists_ShouldReturnClassRoom() throws Exception {
+        testClassRoom.setVersion(VERSION);
+        when(classRoomService.findVersionById(1L)).thenReturn(VERSION);
         when(classRoomService.findById(1L)).thenReturn(testClassRoom);
 
         mockMvc.perform(get("/api/classrooms/{id}", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETags.of(1L, VERSION)))
                 .andExpect(jsonPath("$.id").value(testClassRoom.getId()));
     }
 
+    @Test
+    void getClassRoomById_WhenNotModified_ShouldReturn304WithoutLoading() throws Exception {
+        when(classRoomService.findVersionById(1L)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/classrooms/{id}", 1L).header("If-None-Match", ETags.of(1L, VERSION)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(classRoomService, never()).findById(1L);
+    }
+
 @Test
 void findAvailableRooms_ShouldReturnAvailableClassRooms() throws Exception {
     Page<ClassRoom> page = new PageImpl<>(Arrays.asList(testClassRoom));
     when(classRoomService.findAvailableRooms(eq(20), any(Pageable.class)))
             .thenReturn(page);
 
-    mockMvc.perform(get("/api/classrooms/available")
+    MvcResult result = mockMvc.perform(get("/api/classrooms/available")
             .param("capacity", "20")
             .param("page", "0")
             .param("size", "10"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    mockMvc.perform(asyncDispatch(result))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$.content[0].id").value(testClassRoom.getId()));
+            .andExpect(jsonPath("$.items[0].id").value(testClassRoom.getId()));
 }
 
     @Test
@@ -110,11 +133,28 @@ void findAvailableRooms_ShouldReturnAvailableClassRooms() throws Exception {
         Page<ClassRoom> page = new PageImpl<>(Arrays.asList(testClassRoom));
         when(classRoomService.findEmptyRooms(any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/classrooms/empty")
+        MvcResult result = mockMvc.perform(get("/api/classrooms/empty")
                 .param("page", "0")
                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testClassRoom.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testClassRoom.getId()));
+    }
+
+    @Test
+    void findEmptyRooms_WhenQueryFails_ShouldReturnBadRequestFromTheBulkhead() throws Exception {
+        when(classRoomService.findEmptyRooms(any(Pageable.class))).thenThrow(new IllegalStateException("boom"));
+
+        MvcResult result = mockMvc.perform(get("/api/classrooms/empty"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VAL-400-R"));
     }
 
     @Test
@@ -126,7 +166,7 @@ void findAvailableRooms_ShouldReturnAvailableClassRooms() throws Exception {
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testClassRoom.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testClassRoom.getId()));
     }
 
     @Test
@@ -140,11 +180,15 @@ void findAvailableRooms_ShouldReturnAvailableClassRooms() throws Exception {
         Page<ClassRoom> page = new PageImpl<>(Arrays.asList(testClassRoom));
         when(classRoomService.search(any(String.class), any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/classrooms/search")
+        MvcResult result = mockMvc.perform(get("/api/classrooms/search")
                 .param("keyword", "Java")
                 .param("page", "0")
                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].name").value(testClassRoom.getName()));
+                .andExpect(jsonPath("$.items[0].name").value(testClassRoom.getName()));
     }
 }
\ No newline at end of file
@@ -1,9 +1,11 @@
 package com.formation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.dto.CourseSummary;
 import com.formation.entity.Course;
 import com.formation.entity.enums.CourseStatus;
 import com.formation.service.CourseService;
+import com.formation.utils.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,15 +16,22 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashSet;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -32,6 +41,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles("test")
 class CourseControllerIntegrationTest {
 
+    private static final Long VERSION = 3L;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -74,26 +85,108 @@ class CourseControllerIntegrationTest {
     }
 
     @Test
-    void getAllCourses_ShouldReturnPageOfCourses() throws Exception {
-        Page<Course> page = new PageImpl<>(Arrays.asList(testCourse));
-        when(courseService.findAll(any(Pageable.class))).thenReturn(page);
+    void getAllCourses_ShouldReturnPageOfSummaries() throws Exception {
+        CourseSummary summary = new CourseSummary(1L, "Java Programming", "Intermediate", null, 5, 20, 0,
+                testCourse.getStartDate(), testCourse.getEndDate(), CourseStatus.PLANNED, VERSION, 7L, "Ada", "Lovelace");
+        Page<CourseSummary> page = new PageImpl<>(Arrays.asList(summary));
+        when(courseService.findSummaries(any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/courses")
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testCourse.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testCourse.getId()))
+                .andExpect(jsonPath("$.items[0].trainerLastName").value("Lovelace"))
+                .andExpect(jsonPath("$.items[0].students").doesNotExist())
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
     }
 
     @Test
     void getCourseById_WhenExists_ShouldReturnCourse() throws Exception {
+        testCourse.setVersion(VERSION);
+        when(courseService.findVersionById(1L)).thenReturn(VERSION);
         when(courseService.findById(1L)).thenReturn(testCourse);
 
         mockMvc.perform(get("/api/courses/{id}", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETags.of(1L, VERSION)))
                 .andExpect(jsonPath("$.id").value(testCourse.getId()));
     }
 
+    @Test
+    void getCourseById_WhenCachedCourseLagsTheRow_ShouldTagTheVersionItReturns() throws Exception {
+        testCourse.setVersion(VERSION);
+        when(courseService.findVersionById(1L)).thenReturn(VERSION + 1);
+        when(courseService.findById(1L)).thenReturn(testCourse);
+
+        mockMvc.perform(get("/api/courses/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("ETag", ETags.of(1L, VERSION)));
+    }
+
+    @Test
+    void getCourseById_WhenNotModified_ShouldReturn304WithoutLoading() throws Exception {
+        when(courseService.findVersionById(1L)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/courses/{id}", 1L).header("If-None-Match", ETags.of(1L, VERSION)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(courseService, never()).findById(1L);
+    }
+
+    @Test
+    void updateCourse_WithIfMatch_ShouldUpdateThatVersionAndReturnTheNextETag() throws Exception {
+        testCourse.setVersion(VERSION + 1);
+        when(courseService.update(argThat(course -> VERSION.equals(course.getVersion())))).thenReturn(testCourse);
+
+        mockMvc.perform(put("/api/courses/{id}", 1L)
+                .header("If-Match", ETags.of(1L, VERSION))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testCourse)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETags.of(1L, VERSION + 1)));
+    }
+
+    @Test
+    void updateCourse_WhenVersionIsStale_ShouldReturnPreconditionFailed() throws Exception {
+        when(courseService.update(any(Course.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Course.class, 1L));
+
+        mockMvc.perform(put("/api/courses/{id}", 1L)
+                .header("If-Match", ETags.of(1L, VERSION))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testCourse)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.code").value("VAL-412"));
+    }
+
+    @Test
+    void updateCourse_WhenIfMatchNamesAnotherResource_ShouldReturnPreconditionFailed() throws Exception {
+        mockMvc.perform(put("/api/courses/{id}", 1L)
+                .header("If-Match", ETags.of(2L, VERSION))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(testCourse)))
+                .andExpect(status().isPreconditionFailed());
+        verify(courseService, never()).update(any(Course.class));
+    }
+
+    @Test
+    void enrollStudent_ShouldReturnCreatedWithLocation() throws Exception {
+        mockMvc.perform(post("/api/courses/{id}/enrollments", 1L).param("studentId", "5"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "http://localhost/api/courses/1/enrollments/5"));
+    }
+
+    @Test
+    void enrollStudent_WhenCourseIsFull_ShouldReturnConflict() throws Exception {
+        doThrow(new IllegalStateException("Course is full with id: 1")).when(courseService).enroll(1L, 5L);
+
+        mockMvc.perform(post("/api/courses/{id}/enrollments", 1L).param("studentId", "5"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("CRS-409-F"));
+    }
 
     @Test
     void deleteCourse_WhenEmpty_ShouldReturnNoContent() throws Exception {
@@ -106,11 +199,31 @@ class CourseControllerIntegrationTest {
         Page<Course> page = new PageImpl<>(Arrays.asList(testCourse));
         when(courseService.search(any(String.class), any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/courses/search")
+        MvcResult result = mockMvc.perform(get("/api/courses/search")
                 .param("keyword", "Java")
                 .param("page", "0")
                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].title").value(testCourse.getTitle()));
+                .andExpect(jsonPath("$.items[0].title").value(testCourse.getTitle()));
+        verify(courseService).search(any(String.class), argThat(pageable -> pageable.getSort().isUnsorted()));
+    }
+
+    @Test
+    void searchCourses_WithSort_ShouldPassTheRequestedSort() throws Exception {
+        when(courseService.search(any(String.class), any(Pageable.class))).thenReturn(new PageImpl<>(Arrays.asList(testCourse)));
+
+        MvcResult result = mockMvc.perform(get("/api/courses/search")
+                .param("keyword", "Java")
+                .param("sort", "startDate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(courseService).search(any(String.class), argThat(pageable -> pageable.getSort().equals(Sort.by("startDate"))));
     }
 }
@@ -0,0 +1,102 @@
+package com.formation.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.formation.entity.Course;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.service.CourseService;
+
+/**
+ * Course search through the API against the real index: the title match ranks above a course that only
+ * mentions the keyword in its prerequisites, even though the latter starts first.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourseSearchRankingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    private Course titleMatch;
+    private Course prerequisiteMatch;
+
+    @BeforeEach
+    void setUp() {
+        prerequisiteMatch = courseService.save(course("Functional Patterns", "Some Haskell experience", 5));
+        titleMatch = courseService.save(course("Haskell Fundamentals", null, 40));
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseService.delete(prerequisiteMatch.getId());
+        courseService.delete(titleMatch.getId());
+    }
+
+    @Test
+    void searchCourses_WithoutSort_ShouldRankTheBestMatchFirst() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/courses/search").param("keyword", "haskell"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Haskell Fundamentals"))
+                .andExpect(jsonPath("$.items[1].title").value("Functional Patterns"));
+    }
+
+    @Test
+    void searchCourses_WithSort_ShouldOrderByTheRequestedProperty() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/courses/search")
+                .param("keyword", "haskell")
+                .param("sort", "startDate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Functional Patterns"));
+    }
+
+    @Test
+    void searchCoursesFields_WithoutSort_ShouldRankTheBestMatchFirst() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/courses/search")
+                .param("keyword", "haskell")
+                .param("fields", "title"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Haskell Fundamentals"));
+    }
+
+    private static Course course(String title, String prerequisites, int startInDays) {
+        return Course.builder()
+                .title(title)
+                .level("Advanced")
+                .prerequisites(prerequisites)
+                .minCapacity(1)
+                .maxCapacity(20)
+                .startDate(LocalDate.now().plusDays(startInDays))
+                .endDate(LocalDate.now().plusDays(startInDays + 30))
+                .status(CourseStatus.PLANNED)
+                .build();
+    }
+}
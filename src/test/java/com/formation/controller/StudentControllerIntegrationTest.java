@@ -1,8 +1,21 @@
 package com.formation.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.dto.StudentSummary;
 import com.formation.entity.Student;
+import com.formation.exports.ExportFormat;
+import com.formation.fields.FieldSelection;
+import com.formation.imports.ImportReport;
+import com.formation.limits.ConcurrencyLimiter;
+import com.formation.limits.ConcurrencyLimits;
+import com.formation.limits.LimitGroup;
+import com.formation.pagination.CursorPage;
+import com.formation.service.ExportService;
+import com.formation.service.SparseFieldService;
+import com.formation.service.StudentImportService;
 import com.formation.service.StudentService;
+import com.formation.utils.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,13 +26,28 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.EntityNotFoundException;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -35,10 +63,23 @@ class StudentControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private ConcurrencyLimits concurrencyLimits;
+
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentImportService studentImportService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private SparseFieldService sparseFieldService;
+
     private Student testStudent;
+    private StudentSummary testSummary;
     private Pageable pageable;
 
     @BeforeEach
@@ -50,6 +91,8 @@ class StudentControllerIntegrationTest {
                 .email("john.doe@test.com")
                 .level("Intermediate")
                 .build();
+        testSummary = new StudentSummary(1L, "Doe", "John", "john.doe@test.com", "Intermediate", 0L,
+                2L, "Java Basics", 3L, "A101");
                 
         pageable = PageRequest.of(0, 10);
     }
@@ -66,45 +109,242 @@ class StudentControllerIntegrationTest {
     }
 
     @Test
-    void getAllStudents_ShouldReturnPageOfStudents() throws Exception {
-        Page<Student> page = new PageImpl<>(Arrays.asList(testStudent));
-        when(studentService.findAll(any(Pageable.class))).thenReturn(page);
+    void importStudents_ShouldReturnReport() throws Exception {
+        ImportReport report = new ImportReport();
+        report.rowRead();
+        report.rowRead();
+        report.imported(1);
+        report.reject(3, "email: must be a well-formed email address");
+        when(studentImportService.importCsv(any())).thenReturn(report);
+
+        mockMvc.perform(post("/api/students/import")
+                .contentType("text/csv")
+                .content("lastName,firstName,email,level\nDoe,John,john@test.com,Beginner\nDoe,Jane,bad,Beginner\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
+    @Test
+    void importStudents_WithInvalidHeader_ShouldReturnBadRequest() throws Exception {
+        when(studentImportService.importCsv(any()))
+            .thenThrow(new IllegalArgumentException("CSV header must contain the columns lastName,firstName,email,level"));
+
+        mockMvc.perform(post("/api/students/import")
+                .contentType("text/csv")
+                .content("name\nDoe\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStudents_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(2).write("{\"id\":1}\n".getBytes());
+            return null;
+        }).when(exportService).exportStudents(isNull(), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/api/students/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"students.ndjson\""))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportStudents_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getStudents_WithFields_ShouldStreamTheSparseSlice() throws Exception {
+        doAnswer(invocation -> {
+            FieldSelection fields = invocation.getArgument(0);
+            assertEquals(Arrays.asList("id", "courseTitle"), fields.getNames());
+            invocation.<OutputStream>getArgument(3).write("{\"items\":[{\"id\":1,\"courseTitle\":\"Java\"}]}".getBytes());
+            return null;
+        }).when(sparseFieldService).writeSlice(any(FieldSelection.class), any(Pageable.class), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/students").param("fields", "id, courseTitle,id"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.items[0].courseTitle").value("Java"));
+        verify(studentService, never()).findSummaries(any(Pageable.class));
+    }
+
+    @Test
+    void getStudents_WithFieldsAndCborAccepted_ShouldWriteWithTheCborConverter() throws Exception {
+        doAnswer(invocation -> {
+            JsonFactory format = invocation.getArgument(2);
+            assertEquals("CBOR", format.getFormatName());
+            return null;
+        }).when(sparseFieldService).writeSlice(any(FieldSelection.class), any(Pageable.class), any(), any());
+
+        MvcResult result = mockMvc.perform(get("/api/students").param("fields", "id")
+                .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+        verify(sparseFieldService).writeSlice(any(FieldSelection.class), any(Pageable.class), any(), any());
+    }
+
+    @Test
+    void getStudents_WithFieldsAndUnsupportedAccept_ShouldReturnNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/students").param("fields", "id").accept(MediaType.APPLICATION_PDF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void getStudents_WithUnknownField_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students").param("fields", "id,password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VAL-400-I"));
+
+        mockMvc.perform(get("/api/students/search").param("keyword", "Doe").param("fields", " , "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("VAL-400-I"));
+    }
+
+    @Test
+    void getStudentById_ShouldReturnETagAndHonourIfNoneMatch() throws Exception {
+        testStudent.setVersion(3L);
+        when(studentService.findVersionById(1L)).thenReturn(3L);
+        when(studentService.findById(1L)).thenReturn(testStudent);
+
+        String eTag = mockMvc.perform(get("/api/students/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(testStudent.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/students/{id}", 1L).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        testStudent.setVersion(4L);
+        when(studentService.findVersionById(1L)).thenReturn(4L);
+        mockMvc.perform(get("/api/students/{id}", 1L).header("If-None-Match", eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", not(eTag)));
+    }
+
+    @Test
+    void getStudentById_WhenMissing_ShouldReturnNotFound() throws Exception {
+        when(studentService.findVersionById(99L)).thenThrow(new EntityNotFoundException("Student not found with id: 99"));
+
+        mockMvc.perform(get("/api/students/{id}", 99L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllStudents_ShouldReturnPageOfSummaries() throws Exception {
+        Page<StudentSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(studentService.findSummaries(any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/students"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testStudent.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()))
+                .andExpect(jsonPath("$.items[0].courseTitle").value("Java Basics"))
+                .andExpect(jsonPath("$.items[0].classRoomNumber").value("A101"))
+                .andExpect(jsonPath("$.items[0].course").doesNotExist());
+    }
+
+    @Test
+    void getAllStudents_WithoutCount_ShouldReturnSliceWithoutTotals() throws Exception {
+        when(studentService.findSummarySlice(any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(Arrays.asList(testSummary), pageable, true));
+
+        mockMvc.perform(get("/api/students").param("count", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.total").doesNotExist());
+        verify(studentService, never()).findSummaries(any(Pageable.class));
+    }
+
+    @Test
+    void getStudentsByCursor_ShouldReturnItemsAndNextCursor() throws Exception {
+        CursorPage<Student> page = new CursorPage<>(Arrays.asList(testStudent), "next");
+        when(studentService.findAllAfter(isNull(), eq(10))).thenReturn(page);
+
+        mockMvc.perform(get("/api/students/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(testStudent.getId()))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    void getStudentsByCursor_WithInvalidSize_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/students/cursor").param("size", "0"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void findByLevel_ShouldReturnStudentsWithLevel() throws Exception {
-        Page<Student> page = new PageImpl<>(Arrays.asList(testStudent));
-        when(studentService.findByLevel(any(String.class), any(Pageable.class))).thenReturn(page);
+        Page<StudentSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(studentService.findSummariesByLevel(any(String.class), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/students/level/{level}", "Intermediate")
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].level").value("Intermediate"));
+                .andExpect(jsonPath("$.items[0].level").value("Intermediate"));
     }
 
     @Test
     void findByClassRoomId_ShouldReturnStudentsInClassRoom() throws Exception {
-        Page<Student> page = new PageImpl<>(Arrays.asList(testStudent));
-        when(studentService.findByClassRoomId(any(Long.class), any(Pageable.class))).thenReturn(page);
+        Page<StudentSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(studentService.findSummariesByClassRoomId(any(Long.class), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/students/classroom/{classRoomId}", 1L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testStudent.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()));
     }
 
     @Test
     void findByCourseId_ShouldReturnStudentsInCourse() throws Exception {
-        Page<Student> page = new PageImpl<>(Arrays.asList(testStudent));
-        when(studentService.findByCourseId(any(Long.class), any(Pageable.class))).thenReturn(page);
+        Page<StudentSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(studentService.findSummariesByCourseId(any(Long.class), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/students/course/{courseId}", 1L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testStudent.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()))
+                .andExpect(jsonPath("$.items[0].courseId").value(2L));
+    }
+
+    @Test
+    void searchStudents_WhenScansAreSaturated_ShouldShedWithRetryAfter() throws Exception {
+        when(studentService.findById(1L)).thenReturn(testStudent);
+        List<ConcurrencyLimiter.Permit> held = new ArrayList<>();
+        try {
+            ConcurrencyLimiter scans = concurrencyLimits.get(LimitGroup.SCAN);
+            for (Optional<ConcurrencyLimiter.Permit> permit = scans.tryAcquire(); permit.isPresent();
+                    permit = scans.tryAcquire()) {
+                held.add(permit.get());
+            }
+
+            mockMvc.perform(get("/api/students/search").param("keyword", "Doe"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"))
+                    .andExpect(jsonPath("$.code").value("SRV-503"));
+            verify(studentService, never()).search(any(), any());
+
+            // Lookups have their own limit and keep being served
+            mockMvc.perform(get("/api/students/1"))
+                    .andExpect(status().isOk());
+        } finally {
+            held.forEach(ConcurrencyLimiter.Permit::onIgnore);
+        }
     }
 
     @Test
@@ -112,9 +352,13 @@ class StudentControllerIntegrationTest {
         Page<Student> page = new PageImpl<>(Arrays.asList(testStudent));
         when(studentService.search(any(String.class), any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/students/search")
+        MvcResult result = mockMvc.perform(get("/api/students/search")
                 .param("keyword", "John"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].firstName").value("John"));
+                .andExpect(jsonPath("$.items[0].firstName").value("John"));
     }
 }
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.formation.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.dto.TrainerSummary;
 import com.formation.entity.Trainer;
 import com.formation.service.TrainerService;
+import com.formation.utils.ETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,11 +18,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
 import java.util.HashSet;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +35,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles("test")
 class TrainerControllerIntegrationTest {
 
+    private static final Long VERSION = 3L;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -40,6 +47,7 @@ class TrainerControllerIntegrationTest {
     private TrainerService trainerService;
 
     private Trainer testTrainer;
+    private TrainerSummary testSummary;
     private Pageable pageable;
 
     @BeforeEach
@@ -52,6 +60,7 @@ class TrainerControllerIntegrationTest {
                 .specialty("Java")
                 .courses(new HashSet<>())
                 .build();
+        testSummary = new TrainerSummary(1L, "Smith", "John", "john.smith@test.com", "Java", VERSION, 4L, "B202");
         
         pageable = PageRequest.of(0, 10);
     }
@@ -69,46 +78,61 @@ class TrainerControllerIntegrationTest {
     }
 
     @Test
-    void getAllTrainers_ShouldReturnPageOfTrainers() throws Exception {
-        Page<Trainer> page = new PageImpl<>(Arrays.asList(testTrainer));
-        when(trainerService.findAll(any(Pageable.class))).thenReturn(page);
+    void getAllTrainers_ShouldReturnPageOfSummaries() throws Exception {
+        Page<TrainerSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(trainerService.findSummaries(any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/trainers")
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testTrainer.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()))
+                .andExpect(jsonPath("$.items[0].classRoomNumber").value("B202"))
+                .andExpect(jsonPath("$.items[0].courses").doesNotExist());
     }
 
     @Test
     void getTrainerById_WhenExists_ShouldReturnTrainer() throws Exception {
+        testTrainer.setVersion(VERSION);
+        when(trainerService.findVersionById(1L)).thenReturn(VERSION);
         when(trainerService.findById(1L)).thenReturn(testTrainer);
 
         mockMvc.perform(get("/api/trainers/{id}", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETags.of(1L, VERSION)))
                 .andExpect(jsonPath("$.id").value(testTrainer.getId()));
     }
 
+    @Test
+    void getTrainerById_WhenNotModified_ShouldReturn304WithoutLoading() throws Exception {
+        when(trainerService.findVersionById(1L)).thenReturn(VERSION);
+
+        mockMvc.perform(get("/api/trainers/{id}", 1L).header("If-None-Match", ETags.of(1L, VERSION)))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(trainerService, never()).findById(1L);
+    }
+
     @Test
     void findBySpecialty_ShouldReturnTrainersWithSpecialty() throws Exception {
-        Page<Trainer> page = new PageImpl<>(Arrays.asList(testTrainer));
-        when(trainerService.findBySpecialty(any(String.class), any(Pageable.class))).thenReturn(page);
+        Page<TrainerSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(trainerService.findSummariesBySpecialty(any(String.class), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/trainers/specialty/{specialty}", "Java")
                 .param("page", "0")
                 .param("size", "10"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].specialty").value("Java"));
+                .andExpect(jsonPath("$.items[0].specialty").value("Java"));
     }
 
     @Test
     void findByClassRoomId_ShouldReturnTrainersInClassRoom() throws Exception {
-        Page<Trainer> page = new PageImpl<>(Arrays.asList(testTrainer));
-        when(trainerService.findByClassRoomId(any(Long.class), any(Pageable.class))).thenReturn(page);
+        Page<TrainerSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(trainerService.findSummariesByClassRoomId(any(Long.class), any(Pageable.class))).thenReturn(page);
 
         mockMvc.perform(get("/api/trainers/classroom/{classRoomId}", 1L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testTrainer.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testSummary.getId()));
     }
 
     @Test
@@ -119,28 +143,36 @@ class TrainerControllerIntegrationTest {
 
     @Test
     void searchTrainers_ShouldReturnMatchingTrainers() throws Exception {
-        Page<Trainer> page = new PageImpl<>(Arrays.asList(testTrainer));
-        when(trainerService.search(any(String.class), any(Pageable.class))).thenReturn(page);
+        Page<TrainerSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(trainerService.searchSummaries(any(String.class), any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/trainers/search")
+        MvcResult result = mockMvc.perform(get("/api/trainers/search")
                 .param("keyword", "Java")
                 .param("page", "0")
                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].specialty").value(testTrainer.getSpecialty()));
+                .andExpect(jsonPath("$.items[0].specialty").value(testSummary.getSpecialty()));
     }
 
     @Test
     void findAvailableTrainers_ShouldReturnAvailableTrainers() throws Exception {
-        Page<Trainer> page = new PageImpl<>(Arrays.asList(testTrainer));
-        when(trainerService.findAvailableTrainers(any(Integer.class), any(Pageable.class))).thenReturn(page);
+        Page<TrainerSummary> page = new PageImpl<>(Arrays.asList(testSummary));
+        when(trainerService.findAvailableSummaries(any(Integer.class), any(Pageable.class))).thenReturn(page);
 
-        mockMvc.perform(get("/api/trainers/available")
+        MvcResult result = mockMvc.perform(get("/api/trainers/available")
                 .param("maxCourses", "5")
                 .param("page", "0")
                 .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.content[0].id").value(testTrainer.getId()));
+                .andExpect(jsonPath("$.items[0].id").value(testTrainer.getId()));
     }
 
 
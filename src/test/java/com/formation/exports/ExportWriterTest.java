@@ -0,0 +1,42 @@
+package com.formation.exports;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+public class ExportWriterTest {
+
+    @Test
+    void row_AsNdjson_ShouldWriteOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ExportWriter(out, ExportFormat.NDJSON, "id", "title", "startDate", "trainerId")) {
+            writer.row(1L, "Java \"basics\"", LocalDate.of(2024, 3, 1), null);
+            writer.row(2L, "Spring", LocalDate.of(2024, 4, 1), 7L);
+        }
+
+        assertEquals("{\"id\":1,\"title\":\"Java \\\"basics\\\"\",\"startDate\":\"2024-03-01\",\"trainerId\":null}\n"
+            + "{\"id\":2,\"title\":\"Spring\",\"startDate\":\"2024-04-01\",\"trainerId\":7}\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void row_AsCsv_ShouldWriteHeaderAndQuoteWhenNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ExportWriter(out, ExportFormat.CSV, "id", "title", "trainerId")) {
+            writer.row(1L, "Java, \"basics\"", null);
+        }
+
+        assertEquals("id,title,trainerId\r\n1,\"Java, \"\"basics\"\"\",\r\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void of_WithUnknownFormat_ShouldFail() {
+        assertEquals(ExportFormat.CSV, ExportFormat.of("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.of("xml"));
+    }
+}
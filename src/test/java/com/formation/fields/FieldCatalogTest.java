@@ -0,0 +1,73 @@
+package com.formation.fields;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+public class FieldCatalogTest {
+
+    @Test
+    void select_ShouldKeepTheRequestedOrderAndDropRepeats() {
+        FieldSelection selection = FieldCatalog.STUDENTS.select(" courseTitle,id, ,courseTitle,classRoomId");
+
+        assertEquals(Arrays.asList("courseTitle", "id", "classRoomId"), selection.getNames());
+        assertEquals(Arrays.asList("course.title", "id", "classRoom.id"), selection.getPaths());
+        assertEquals(FieldCatalog.STUDENTS, selection.getCatalog());
+    }
+
+    @Test
+    void select_WithUnknownOrNoField_ShouldFail() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+            () -> FieldCatalog.TRAINERS.select("id,courses"));
+        assertTrue(unknown.getMessage().startsWith("unknown field courses"));
+        assertThrows(IllegalArgumentException.class, () -> FieldCatalog.COURSES.select(" , "));
+    }
+
+    @Test
+    void writer_ShouldWriteTheRowsAsASlice() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SparseSliceWriter writer = new SparseSliceWriter(mapper(new JsonFactory()).getFactory(), out,
+                Arrays.asList("id", "startDate", "trainerId"))) {
+            writer.row(1L, LocalDate.of(2024, 3, 1), null);
+            writer.finish(2, 10, true);
+        }
+
+        assertEquals("{\"items\":[{\"id\":1,\"startDate\":\"2024-03-01\",\"trainerId\":null}],"
+            + "\"page\":2,\"size\":10,\"hasNext\":true}",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writer_WithCborFactory_ShouldWriteTheSameSliceInCbor() throws IOException {
+        ObjectMapper cbor = mapper(new CBORFactory());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SparseSliceWriter writer = new SparseSliceWriter(cbor.getFactory(), out, Arrays.asList("id", "startDate"))) {
+            writer.row(1L, LocalDate.of(2024, 3, 1));
+            writer.finish(0, 10, false);
+        }
+
+        JsonNode slice = cbor.readTree(out.toByteArray());
+        assertEquals(1L, slice.get("items").get(0).get("id").asLong());
+        assertEquals("2024-03-01", slice.get("items").get(0).get("startDate").asText());
+        assertFalse(slice.get("hasNext").asBoolean());
+    }
+
+    // Same date handling as the application's converters
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json().factory(factory)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.formation.imports;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+public class CsvReaderTest {
+
+    @Test
+    void next_ShouldSplitPlainRecordsAndTrackLines() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b,c\r\nd,,f\n"));
+
+        assertEquals(Arrays.asList("a", "b", "c"), csv.next());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(Arrays.asList("d", "", "f"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void next_ShouldHandleQuotedSeparatorsLineBreaksAndQuotes() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("\"Doe, Jr\",\"two\nlines\",\"say \"\"hi\"\"\"\nlast,row,x"));
+
+        assertEquals(Arrays.asList("Doe, Jr", "two\nlines", "say \"hi\""), csv.next());
+        assertEquals(Arrays.asList("last", "row", "x"), csv.next());
+        assertEquals(3, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void next_WithUnterminatedQuote_ShouldFail() {
+        CsvReader csv = new CsvReader(new StringReader("\"open,field\n"));
+
+        assertThrows(IOException.class, csv::next);
+    }
+}
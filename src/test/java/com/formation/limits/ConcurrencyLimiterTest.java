@@ -0,0 +1,73 @@
+package com.formation.limits;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    @Test
+    void tryAcquire_ShouldRejectBeyondTheLimitWithoutQueueing() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter(new GradientLimit(3, 1, 10));
+        List<ConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            permits.add(limiter.tryAcquire().orElseThrow());
+        }
+
+        assertTrue(limiter.tryAcquire().isEmpty());
+
+        permits.get(0).onIgnore();
+        permits.get(0).onSuccess();
+        assertEquals(2, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire().isPresent());
+    }
+
+    @Test
+    void onSample_WithSteadyLatencyUnderLoad_ShouldGrowToTheMaximum() {
+        GradientLimit limit = new GradientLimit(10, 2, 50);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+        assertEquals(50, limit.getLimit());
+    }
+
+    @Test
+    void onSample_WhenRequestsAreNotQueueing_ShouldKeepTheLimit() {
+        GradientLimit limit = new GradientLimit(10, 2, 50);
+        for (int i = 0; i < 200; i++) {
+            limit.onSample(FAST, 1);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void onSample_WhenLatencyClimbs_ShouldShrinkTheLimit() {
+        GradientLimit limit = new GradientLimit(40, 2, 50);
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST, limit.getLimit());
+        }
+        int before = limit.getLimit();
+        for (int i = 0; i < 30; i++) {
+            limit.onSample(FAST * 20, limit.getLimit());
+        }
+        assertTrue(limit.getLimit() < before / 2, "limit went from " + before + " to " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 2);
+    }
+
+    @Test
+    void onDrop_ShouldBackOffDownToTheMinimum() {
+        GradientLimit limit = new GradientLimit(20, 4, 50);
+        limit.onDrop();
+        assertEquals(18, limit.getLimit());
+        for (int i = 0; i < 100; i++) {
+            limit.onDrop();
+        }
+        assertEquals(4, limit.getLimit());
+    }
+}
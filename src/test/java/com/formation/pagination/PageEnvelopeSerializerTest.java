@@ -0,0 +1,131 @@
+package com.formation.pagination;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.formation.dto.StudentSummary;
+import com.formation.entity.Course;
+import com.formation.entity.enums.CourseStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+public class PageEnvelopeSerializerTest {
+
+    private static final int ROWS = 10;
+    private static final int ROUNDS = 2000;
+
+    // As the application mapper was configured before the envelope
+    private final ObjectMapper spring = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .modulesToInstall(new Hibernate5Module())
+        .build();
+
+    private final ObjectMapper lean = Jackson2ObjectMapperBuilder.json()
+        .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .modulesToInstall(new Hibernate5Module(),
+            new SimpleModule("PageEnvelope").addSerializer(new PageEnvelopeSerializer()))
+        .build();
+
+    @Test
+    void page_ShouldWriteItemsWithTheTotal() throws Exception {
+        JsonNode page = lean.readTree(lean.writeValueAsBytes(
+            new PageImpl<>(summaries(3), PageRequest.of(1, 3, Sort.by("lastName")), 10)));
+
+        assertEquals(3, page.get("items").size());
+        assertEquals("Doe", page.get("items").get(0).get("lastName").asText());
+        assertEquals(1, page.get("page").asInt());
+        assertEquals(3, page.get("size").asInt());
+        assertTrue(page.get("hasNext").asBoolean());
+        assertEquals(10, page.get("total").asLong());
+        assertFalse(page.has("pageable"));
+        assertFalse(page.has("sort"));
+    }
+
+    @Test
+    void slice_ShouldLeaveOutTheTotal() throws Exception {
+        assertEquals("{\"items\":[],\"page\":0,\"size\":5,\"hasNext\":false}",
+            lean.writeValueAsString(new SliceImpl<>(new ArrayList<>(), PageRequest.of(0, 5), false)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void envelope_ShouldAllocateLessPerResponse() throws Exception {
+        PageImpl<StudentSummary> summaries = new PageImpl<>(summaries(ROWS), PageRequest.of(0, ROWS, Sort.by("lastName")), 1000);
+        PageImpl<Course> courses = new PageImpl<>(courses(ROWS), PageRequest.of(0, ROWS, Sort.by("startDate")), 1000);
+
+        for (PageImpl<?> page : List.of(summaries, courses)) {
+            String type = page.getContent().get(0).getClass().getSimpleName();
+            JsonNode before = spring.readTree(spring.writeValueAsBytes(page));
+            JsonNode after = lean.readTree(lean.writeValueAsBytes(page));
+            assertEquals(before.get("content"), after.get("items"), type);
+
+            long springBytes = spring.writeValueAsBytes(page).length;
+            long leanBytes = lean.writeValueAsBytes(page).length;
+            long springAllocated = allocatedPerResponse(spring, page);
+            long leanAllocated = allocatedPerResponse(lean, page);
+            log.info("{} {} per page: Spring page {} bytes, {} allocated; envelope {} bytes, {} allocated",
+                ROWS, type, springBytes, springAllocated, leanBytes, leanAllocated);
+
+            assertTrue(leanBytes < springBytes, type);
+            // Rows are written by the same cached serializers, what is saved is the body itself
+            assertTrue(leanAllocated < springAllocated, type + ": " + leanAllocated + " vs " + springAllocated);
+        }
+    }
+
+    private static long allocatedPerResponse(ObjectMapper mapper, Object value) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        // Warm up the serializers before measuring
+        for (int round = 0; round < ROUNDS; round++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long start = threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < ROUNDS; round++) {
+            mapper.writeValueAsBytes(value);
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - start) / ROUNDS;
+    }
+
+    private static List<StudentSummary> summaries(int count) {
+        List<StudentSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(new StudentSummary((long) i, "Doe", "John", "john" + i + "@test.com", "Intermediate",
+                0L, 2L, "Java Basics", 3L, "A101"));
+        }
+        return summaries;
+    }
+
+    private static List<Course> courses(int count) {
+        List<Course> courses = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            courses.add(Course.builder()
+                .id((long) i)
+                .title("Course " + i)
+                .level("Beginner")
+                .minCapacity(1)
+                .maxCapacity(20)
+                .startDate(LocalDate.of(2024, 3, 1))
+                .endDate(LocalDate.of(2024, 4, 1))
+                .status(CourseStatus.PLANNED)
+                .build());
+        }
+        return courses;
+    }
+}
@@ -0,0 +1,218 @@
+package com.formation.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.formation.entity.Course;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Slf4j
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "formation.reactive.port=0",
+    "server.tomcat.accept-count=4096",
+    "formation.reactive.r2dbc-url=r2dbc:h2:mem:///testdb?options=DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+public class ReactiveCourseCatalogTest {
+
+    private static final int UPCOMING = 30;
+    private static final int ONGOING = 10;
+    private static final int CLIENTS = 5000;
+
+    @LocalServerPort
+    private int servletPort;
+
+    @Autowired
+    private ReactiveCatalogServer catalogServer;
+
+    @Autowired
+    private ReactiveCourseRepository reactiveCourseRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private WebTestClient client;
+    private List<Course> courses;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + catalogServer.getPort()).build();
+        courses = new ArrayList<>();
+        for (int i = 0; i < UPCOMING; i++) {
+            courses.add(course("Reactive upcoming " + i, CourseStatus.PLANNED, LocalDate.now().plusDays(1 + i)));
+        }
+        for (int i = 0; i < ONGOING; i++) {
+            courses.add(course("Reactive ongoing " + i, CourseStatus.IN_PROGRESS, LocalDate.now().minusDays(1 + i)));
+        }
+        courses = courseRepository.saveAll(courses);
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteAllInBatch(courses);
+    }
+
+    @Test
+    void list_ShouldStreamAJsonArrayNewestFirst() {
+        client.get().uri("/api/courses?size=5")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_JSON)
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(5)
+            .jsonPath("$[0].title").isEqualTo("Reactive upcoming " + (UPCOMING - 1))
+            .jsonPath("$[0].startDate").isEqualTo(LocalDate.now().plusDays(UPCOMING).toString());
+    }
+
+    @Test
+    void upcomingAndOngoing_ShouldFilterByStatus() {
+        client.get().uri("/api/courses/upcoming?size=100")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(CourseView.class).hasSize(UPCOMING);
+        client.get().uri("/api/courses/ongoing?size=100")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(CourseView.class).hasSize(ONGOING);
+    }
+
+    @Test
+    void search_WithNdjsonAccepted_ShouldWriteOneCoursePerLine() {
+        String body = client.get().uri("/api/courses/search?keyword=ongoing&size=100")
+            .accept(MediaType.APPLICATION_NDJSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+            .expectBody(String.class).returnResult().getResponseBody();
+
+        assertEquals(ONGOING, body.trim().split("\n").length);
+    }
+
+    @Test
+    void search_WithShortKeyword_ShouldReturnBadRequest() {
+        client.get().uri("/api/courses/search?keyword=a")
+            .exchange()
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.code").isEqualTo("VAL-400-S");
+    }
+
+    @Test
+    @Tag("benchmark")
+    void list_WithFiveThousandConcurrentClients_ShouldUseFewerThreadsThanTheServletStack() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        Load reactive = load(catalogServer.getPort(), "/api/courses?size=20",
+            () -> reactiveCourseRepository.getPoolMetrics().acquiredSize());
+        Load servlet = load(servletPort, "/api/courses?size=20",
+            () -> hikari.getHikariPoolMXBean().getActiveConnections());
+
+        log.info("{} concurrent clients, reactive: {}", CLIENTS, reactive);
+        log.info("{} concurrent clients, servlet: {}", CLIENTS, servlet);
+
+        assertEquals(Map.of(200, (long) CLIENTS), reactive.statuses);
+        assertTrue(reactive.peakConnections <= reactiveCourseRepository.getPoolMetrics().getMaxAllocatedSize());
+        assertTrue(reactive.addedThreads < servlet.addedThreads,
+            "reactive added " + reactive.addedThreads + " threads, servlet " + servlet.addedThreads);
+    }
+
+    private Load load(int port, String uri, IntSupplier connectionsInUse) throws InterruptedException {
+        ConnectionProvider connections = ConnectionProvider.builder("benchmark")
+            .maxConnections(CLIENTS)
+            .pendingAcquireMaxCount(-1)
+            .pendingAcquireTimeout(Duration.ofMinutes(1))
+            .build();
+        HttpClient http = HttpClient.create(connections).port(port);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        AtomicInteger peakConnections = new AtomicInteger();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        int threadsBefore = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+        sampler.scheduleAtFixedRate(() -> peakConnections.accumulateAndGet(connectionsInUse.getAsInt(), Math::max),
+            0, 2, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        Map<Integer, Long> statuses = Flux.range(0, CLIENTS)
+            .flatMap(i -> http.get().uri(uri)
+                .responseSingle((response, body) -> body.asString().defaultIfEmpty("").thenReturn(response.status().code()))
+                .onErrorReturn(-1), CLIENTS)
+            .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
+            .block(Duration.ofMinutes(2));
+        long elapsed = System.nanoTime() - start;
+
+        sampler.shutdown();
+        sampler.awaitTermination(1, TimeUnit.SECONDS);
+        int addedThreads = threads.getPeakThreadCount() - threadsBefore;
+        connections.disposeLater().block(Duration.ofSeconds(30));
+        return new Load(statuses, addedThreads, peakConnections.get(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    private static Course course(String title, CourseStatus status, LocalDate startDate) {
+        return Course.builder()
+            .title(title)
+            .level("Intermediate")
+            .minCapacity(1)
+            .maxCapacity(20)
+            .startDate(startDate)
+            .endDate(startDate.plusDays(30))
+            .status(status)
+            .build();
+    }
+
+    private static class Load {
+        final Map<Integer, Long> statuses;
+        final int addedThreads;
+        final int peakConnections;
+        final long millis;
+
+        Load(Map<Integer, Long> statuses, int addedThreads, int peakConnections, long millis) {
+            this.statuses = statuses;
+            this.addedThreads = addedThreads;
+            this.peakConnections = peakConnections;
+            this.millis = millis;
+        }
+
+        @Override
+        public String toString() {
+            return "responses by status " + statuses + " in " + millis + " ms, " + addedThreads
+                + " threads added, at most " + peakConnections + " database connections in use";
+        }
+    }
+}
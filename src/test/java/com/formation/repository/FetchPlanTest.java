@@ -0,0 +1,155 @@
+package com.formation.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.Trainer;
+import com.formation.entity.enums.CourseStatus;
+
+/**
+ * Counts the SQL statements behind the roster and trainer course endpoints, their list projections
+ * must not grow with the number of rows.
+ */
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.datasource.url=jdbc:h2:mem:fetchplans;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class FetchPlanTest {
+
+    private static final int ROSTER = 30;
+    private static final int CLASSROOMS = 3;
+    private static final int TRAINER_COURSES = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    private Statistics statistics;
+    private Trainer trainer;
+    private List<Course> courses;
+    private List<ClassRoom> classRooms;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        trainer = trainerRepository.save(Trainer.builder()
+                .lastName("Graph")
+                .firstName("Fetch")
+                .email("fetch.graph@plan.test")
+                .specialty("Java")
+                .build());
+
+        List<Course> newCourses = new ArrayList<>();
+        for (int i = 0; i < TRAINER_COURSES; i++) {
+            newCourses.add(Course.builder()
+                    .title("Fetch plan " + i)
+                    .level("Beginner")
+                    .minCapacity(1)
+                    .maxCapacity(ROSTER)
+                    .startDate(LocalDate.now().plusDays(7))
+                    .endDate(LocalDate.now().plusDays(37))
+                    .status(CourseStatus.PLANNED)
+                    .trainer(trainer)
+                    .build());
+        }
+        courses = courseRepository.saveAll(newCourses);
+
+        List<ClassRoom> newClassRooms = new ArrayList<>();
+        for (int i = 0; i < CLASSROOMS; i++) {
+            newClassRooms.add(ClassRoom.builder()
+                    .name("Fetch plan " + i)
+                    .roomNumber("F" + i)
+                    .maxCapacity(ROSTER)
+                    .build());
+        }
+        classRooms = classRoomRepository.saveAll(newClassRooms);
+
+        List<Student> newStudents = new ArrayList<>();
+        for (int i = 0; i < ROSTER; i++) {
+            newStudents.add(Student.builder()
+                    .lastName("Roster")
+                    .firstName("Member")
+                    .email("roster" + i + "@plan.test")
+                    .level("Beginner")
+                    .course(courses.get(0))
+                    .classRoom(classRooms.get(i % CLASSROOMS))
+                    .build());
+        }
+        students = studentRepository.saveAll(newStudents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch(students);
+        courseRepository.deleteAllInBatch(courses);
+        classRoomRepository.deleteAllInBatch(classRooms);
+        trainerRepository.deleteById(trainer.getId());
+    }
+
+    @Test
+    void rosterEndpoint_ShouldRunAFixedNumberOfStatements() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/students/course/{courseId}", courses.get(0).getId()).param("size", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(ROSTER))
+                .andExpect(jsonPath("$.items[0].classRoomNumber").exists());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/students/course/{courseId}", courses.get(0).getId())
+                .param("size", "30")
+                .param("count", "false"))
+                .andExpect(status().isOk());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void trainerCoursesEndpoint_ShouldRunAFixedNumberOfStatements() throws Exception {
+        statistics.clear();
+        mockMvc.perform(get("/api/courses/trainer/{trainerId}", trainer.getId())
+                .param("size", String.valueOf(TRAINER_COURSES)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(TRAINER_COURSES))
+                .andExpect(jsonPath("$.items[0].trainerLastName").value("Graph"));
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
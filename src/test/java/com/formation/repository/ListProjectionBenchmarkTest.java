@@ -0,0 +1,190 @@
+package com.formation.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.dto.StudentSummary;
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@Tag("benchmark")
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.datasource.url=jdbc:h2:mem:projections;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+public class ListProjectionBenchmarkTest {
+
+    private static final int COURSES = 50;
+    private static final int CLASSROOMS = 25;
+    private static final int STUDENTS = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    private List<Course> courses;
+    private List<ClassRoom> classRooms;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        List<Course> newCourses = new ArrayList<>();
+        for (int i = 0; i < COURSES; i++) {
+            newCourses.add(Course.builder()
+                    .title("Projection " + i)
+                    .level("Beginner")
+                    .minCapacity(1)
+                    .maxCapacity(STUDENTS)
+                    .startDate(LocalDate.now().plusDays(7))
+                    .endDate(LocalDate.now().plusDays(37))
+                    .status(CourseStatus.PLANNED)
+                    .build());
+        }
+        courses = courseRepository.saveAll(newCourses);
+
+        List<ClassRoom> newClassRooms = new ArrayList<>();
+        for (int i = 0; i < CLASSROOMS; i++) {
+            newClassRooms.add(ClassRoom.builder()
+                    .name("Projection " + i)
+                    .roomNumber("P" + i)
+                    .maxCapacity(STUDENTS)
+                    .build());
+        }
+        classRooms = classRoomRepository.saveAll(newClassRooms);
+
+        List<Student> newStudents = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            newStudents.add(Student.builder()
+                    .lastName(lastName(i))
+                    .firstName("Reader")
+                    .email("projection" + i + "@list.test")
+                    .level("Beginner")
+                    .course(courses.get(i % COURSES))
+                    .classRoom(classRooms.get(i % CLASSROOMS))
+                    .build());
+        }
+        students = studentRepository.saveAll(newStudents);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch(students);
+        courseRepository.deleteAllInBatch(courses);
+        classRoomRepository.deleteAllInBatch(classRooms);
+    }
+
+    @Test
+    void summarySlice_ShouldReadAPageWithOneStatement() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Pageable page = PageRequest.of(0, PAGE_SIZE, Sort.by("lastName"));
+
+        // Entities as the list endpoints wrote them, plus the lazy loads to resolve the names shown next to them
+        Supplier<String> entities = () -> transactionTemplate.execute(status -> {
+            Slice<Student> slice = studentRepository.findAllBy(page);
+            String json = write(slice);
+            slice.forEach(student -> {
+                student.getCourse().getTitle();
+                student.getClassRoom().getRoomNumber();
+            });
+            return json;
+        });
+        Supplier<String> summaries = () -> transactionTemplate.execute(
+            status -> write(studentRepository.findSummarySlice(page)));
+
+        // Warm up both paths before measuring
+        entities.get();
+        summaries.get();
+
+        statistics.clear();
+        long entityBytes = entities.get().length();
+        long entityStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        long summaryBytes = summaries.get().length();
+        long summaryStatements = statistics.getPrepareStatementCount();
+
+        long entityNanos = measure(entities);
+        long summaryNanos = measure(summaries);
+
+        log.info("{} students per page: entities {} statements, {} bytes, {} us; summaries {} statements, {} bytes, {} us",
+            PAGE_SIZE, entityStatements, entityBytes, entityNanos / 1000, summaryStatements, summaryBytes,
+            summaryNanos / 1000);
+
+        assertEquals(1, summaryStatements);
+        assertTrue(entityStatements > 10, "expected lazy loads per course and classroom, got " + entityStatements);
+
+        StudentSummary summary = studentRepository.findSummariesByName(lastName(COURSES + 1), "Reader", page)
+            .getContent().get(0);
+        assertEquals("Projection 1", summary.getCourseTitle());
+        assertEquals("P1", summary.getClassRoomNumber());
+    }
+
+    private long measure(Supplier<String> path) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            path.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    // Last names only allow letters, the index is spelled with one letter per digit
+    private static String lastName(int index) {
+        StringBuilder name = new StringBuilder("Projection");
+        for (char digit : String.valueOf(index).toCharArray()) {
+            name.append((char) ('a' + digit - '0'));
+        }
+        return name.toString();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.formation.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.hql.internal.ast.ASTQueryTranslatorFactory;
+import org.hibernate.hql.spi.QueryTranslator;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs EXPLAIN on H2 for every {@link Query} declared on the repositories and fails when a
+ * query reads a table without an index. Queries that cannot use an index by design are listed
+ * in {@link #TABLE_SCAN_ALLOWED} with the reason.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class QueryPlanTest {
+
+    private static final List<Class<?>> REPOSITORIES = Arrays.asList(
+        ClassRoomRepository.class, CourseRepository.class, StudentRepository.class, TrainerRepository.class);
+
+    private static final Map<String, String> TABLE_SCAN_ALLOWED = new HashMap<>();
+
+    static {
+        String likeSearch = "infix LIKE cannot use a b-tree index, served by the search engines";
+        TABLE_SCAN_ALLOWED.put("ClassRoomRepository.search", likeSearch);
+        TABLE_SCAN_ALLOWED.put("CourseRepository.search", likeSearch);
+        TABLE_SCAN_ALLOWED.put("CourseRepository.searchSlice", likeSearch);
+        TABLE_SCAN_ALLOWED.put("StudentRepository.search", likeSearch);
+        TABLE_SCAN_ALLOWED.put("StudentRepository.searchSlice", likeSearch);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.search", likeSearch);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.searchSummaries", likeSearch);
+        String courseLoad = "course load is counted per trainer, the inner count uses idx_courses_trainer_id";
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.findAvailableTrainers", courseLoad);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.findTrainersWithoutCourses", courseLoad);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.findAvailableSummaries", courseLoad);
+        String listing = "unfiltered listing reads every row, the page is cut by LIMIT after the sort";
+        TABLE_SCAN_ALLOWED.put("CourseRepository.findSummaries", listing);
+        TABLE_SCAN_ALLOWED.put("CourseRepository.findSummarySlice", listing);
+        TABLE_SCAN_ALLOWED.put("StudentRepository.findSummaries", listing);
+        TABLE_SCAN_ALLOWED.put("StudentRepository.findSummarySlice", listing);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.findSummaries", listing);
+        String lowCardinality = "a handful of distinct values, an index would still visit most rows";
+        TABLE_SCAN_ALLOWED.put("StudentRepository.findSummariesByLevel", lowCardinality);
+        TABLE_SCAN_ALLOWED.put("StudentRepository.findSummarySliceByLevel", lowCardinality);
+        TABLE_SCAN_ALLOWED.put("TrainerRepository.findSummariesBySpecialty", lowCardinality);
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @TestFactory
+    Stream<DynamicTest> everyRepositoryQueryShouldUseAnIndex() {
+        return REPOSITORIES.stream()
+            .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> method.isAnnotationPresent(Query.class))
+                .sorted(Comparator.comparing(Method::getName)))
+            .map(method -> {
+                String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                return DynamicTest.dynamicTest(name, () -> {
+                    String plan = explain(toSql(method.getAnnotation(Query.class).value()));
+                    if (!TABLE_SCAN_ALLOWED.containsKey(name)) {
+                        assertFalse(plan.contains(".tableScan"), name + " scans a table:\n" + plan);
+                    }
+                });
+            });
+    }
+
+    private String toSql(String jpql) {
+        // Spring Data expands LIKE shorthands such as %:keyword% before handing the query to Hibernate
+        String hql = jpql.replaceAll("%(:\\w+)%", "CONCAT('%', $1, '%')");
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        QueryTranslator translator = new ASTQueryTranslatorFactory()
+            .createQueryTranslator(hql, hql, Collections.emptyMap(), sessionFactory, null);
+        translator.compile(Collections.emptyMap(), false);
+        return translator.collectSqlStrings().get(0);
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    private static Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.DATE:
+                return LocalDate.now();
+            case Types.VARCHAR:
+            case Types.CHAR:
+                return "a";
+            default:
+                return 1;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.formation.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.Trainer;
+import com.formation.entity.enums.CourseStatus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private ClassRoom classRoom;
+    private Trainer trainer;
+    private Student student;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        classRoom = classRoomRepository.save(ClassRoom.builder().name("Cached").roomNumber("C-101").build());
+        trainer = trainerRepository.save(Trainer.builder()
+                .lastName("Cache")
+                .firstName("Keeper")
+                .email("keeper@cache.test")
+                .specialty("Java")
+                .classRoom(classRoom)
+                .build());
+        student = studentRepository.save(Student.builder()
+                .lastName("Cache")
+                .firstName("Reader")
+                .email("reader@cache.test")
+                .level("Beginner")
+                .classRoom(classRoom)
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Cached course")
+                .level("Beginner")
+                .minCapacity(1)
+                .maxCapacity(10)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .trainer(trainer)
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteById(course.getId());
+        studentRepository.deleteById(student.getId());
+        trainerRepository.deleteById(trainer.getId());
+        classRoomRepository.deleteById(classRoom.getId());
+    }
+
+    @Test
+    void findById_ShouldHitTheDatabaseOnce() {
+        classRoomRepository.findById(classRoom.getId());
+        classRoomRepository.findById(classRoom.getId());
+        trainerRepository.findById(trainer.getId());
+        trainerRepository.findById(trainer.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheMissCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void lazyClassRoom_ShouldLoadFromCache() {
+        classRoomRepository.findById(classRoom.getId());
+        statistics.clear();
+
+        String name = transactionTemplate.execute(status ->
+            entityManager.find(Student.class, student.getId()).getClassRoom().getName());
+
+        assertEquals("Cached", name);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void trainersCollection_ShouldBeEvictedWhenATrainerLeaves() {
+        assertEquals(1, trainerCount());
+        assertEquals(1, trainerCount());
+        assertEquals(1, statistics.getSecondLevelCacheStatistics("com.formation.entity.ClassRoom.trainers")
+            .getHitCount());
+
+        trainer.setClassRoom(null);
+        trainerRepository.save(trainer);
+
+        assertEquals(0, trainerCount());
+    }
+
+    @Test
+    void studentsCollection_ShouldBeEvictedWhenAStudentLeaves() {
+        assertEquals(1, studentCount());
+        assertEquals(1, studentCount());
+        assertEquals(1, statistics.getSecondLevelCacheStatistics("com.formation.entity.ClassRoom.students")
+            .getHitCount());
+
+        student.setClassRoom(null);
+        studentRepository.save(student);
+
+        assertEquals(0, studentCount());
+    }
+
+    @Test
+    void coursesCollection_ShouldBeEvictedWhenACourseLosesItsTrainer() {
+        assertEquals(1, courseCount());
+        assertEquals(1, courseCount());
+        assertEquals(1, statistics.getSecondLevelCacheStatistics("com.formation.entity.Trainer.courses")
+            .getHitCount());
+
+        course.setTrainer(null);
+        courseRepository.save(course);
+
+        assertEquals(0, courseCount());
+    }
+
+    @Test
+    void metrics_ShouldPublishCacheRequestsPerRegion() {
+        classRoomRepository.findById(classRoom.getId());
+        classRoomRepository.findById(classRoom.getId());
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+            .tag("region", "com.formation.entity.ClassRoom")
+            .tag("result", "hit")
+            .functionCounter());
+    }
+
+    private int trainerCount() {
+        return transactionTemplate.execute(status ->
+            entityManager.find(ClassRoom.class, classRoom.getId()).getTrainers().size());
+    }
+
+    private int studentCount() {
+        return transactionTemplate.execute(status ->
+            entityManager.find(ClassRoom.class, classRoom.getId()).getStudents().size());
+    }
+
+    private int courseCount() {
+        return transactionTemplate.execute(status ->
+            entityManager.find(Trainer.class, trainer.getId()).getCourses().size());
+    }
+}
@@ -0,0 +1,149 @@
+package com.formation.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.entity.Student;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class StudentInsertBenchmarkTest {
+
+    private static final int COHORT = 500;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    /**
+     * The students table as it was mapped before the switch to pooled sequences, the id comes back
+     * from each INSERT so Hibernate cannot batch them.
+     */
+    @Entity
+    @Table(name = "identity_students")
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    static class IdentityStudent {
+
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+        private String lastName;
+        private String firstName;
+        private String email;
+        private String level;
+
+        IdentityStudent(String lastName, String firstName, String email, String level) {
+            this.lastName = lastName;
+            this.firstName = firstName;
+            this.email = email;
+            this.level = level;
+        }
+    }
+
+    @Test
+    void saveAll_ShouldBatchCohortInserts() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // Warm up every path before measuring
+        insertIdentityCohort();
+        insertCohort(1);
+        insertCohort(null);
+
+        statistics.clear();
+        long identity = measure(this::insertIdentityCohort);
+        long identityStatements = statistics.getPrepareStatementCount() / ROUNDS;
+        long unbatched = measure(() -> insertCohort(1));
+        statistics.clear();
+        long batched = measure(() -> insertCohort(null));
+        long statements = statistics.getPrepareStatementCount() / ROUNDS;
+
+        log.info("{} student inserts: IDENTITY {} per second, {} statements per cohort; sequence one row per statement "
+            + "{} per second; sequence batched {} per second, {} statements per cohort",
+            COHORT, COHORT * 1_000_000_000L / identity, identityStatements, COHORT * 1_000_000_000L / unbatched,
+            COHORT * 1_000_000_000L / batched, statements);
+
+        assertTrue(identityStatements >= COHORT, "IDENTITY inserts cannot be batched, got " + identityStatements);
+        // One INSERT per batch of 50 plus one sequence call per 50 ids
+        assertTrue(statements <= 2 * COHORT / 50 + 2, "expected batched inserts, got " + statements + " statements");
+    }
+
+    private long measure(LongSupplier cohort) {
+        long elapsed = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            elapsed += cohort.getAsLong();
+        }
+        return elapsed / ROUNDS;
+    }
+
+    private long insertIdentityCohort() {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < COHORT; i++) {
+                entityManager.persist(new IdentityStudent("Cohort", "Member", "cohort" + i + "@benchmark.test", "Beginner"));
+            }
+        });
+        long elapsed = System.nanoTime() - start;
+        transactionTemplate.executeWithoutResult(status ->
+            entityManager.createQuery("DELETE FROM " + IdentityStudent.class.getName()).executeUpdate());
+        return elapsed;
+    }
+
+    private long insertCohort(Integer jdbcBatchSize) {
+        List<Student> cohort = new ArrayList<>();
+        for (int i = 0; i < COHORT; i++) {
+            cohort.add(Student.builder()
+                    .lastName("Cohort")
+                    .firstName("Member")
+                    .email("cohort" + i + "@benchmark.test")
+                    .level("Beginner")
+                    .build());
+        }
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(jdbcBatchSize);
+            studentRepository.saveAll(cohort);
+        });
+        long elapsed = System.nanoTime() - start;
+        studentRepository.deleteAllInBatch(cohort);
+        return elapsed;
+    }
+}
@@ -0,0 +1,180 @@
+package com.formation.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.formation.entity.Course;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class LuceneCourseSearchEngineTest {
+
+    @Mock
+    private CourseRepository courseRepository;
+
+    private LuceneCourseSearchEngine searchEngine;
+    private List<Course> courses;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        courses = new ArrayList<>(Arrays.asList(
+            course(1L, "Spring Boot", "Advanced", "Java and Spring fundamentals", 10),
+            course(2L, "Java Programming", "Beginner", null, 5),
+            course(3L, "Web Design", "Beginner", "HTML basics", 1),
+            course(4L, "Kotlin", "Intermediate", "Some Java experience", 20)));
+
+        when(courseRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(courses));
+        lenient().when(courseRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Long> wanted = StreamSupport.stream(ids.spliterator(), false).collect(Collectors.toList());
+            return courses.stream().filter(c -> wanted.contains(c.getId())).collect(Collectors.toList());
+        });
+
+        searchEngine = new LuceneCourseSearchEngine(courseRepository, "");
+        searchEngine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        searchEngine.close();
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesAboveOtherColumns() {
+        Page<Course> result = searchEngine.search("java", PageRequest.of(0, 10));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2L, result.getContent().get(0).getId());
+        verify(courseRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void search_ShouldMatchWordPrefixes() {
+        Page<Course> result = searchEngine.search("begin", PageRequest.of(0, 10));
+
+        assertEquals(Arrays.asList(2L, 3L), ids(result));
+    }
+
+    @Test
+    void search_ShouldRequireEveryKeywordTerm() {
+        Page<Course> result = searchEngine.search("java spring", PageRequest.of(0, 10));
+
+        assertEquals(Arrays.asList(1L), ids(result));
+    }
+
+    @Test
+    void search_WithSort_ShouldOrderByRequestedProperty() {
+        Page<Course> result = searchEngine.search("java", PageRequest.of(0, 2, Sort.by("startDate")));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(Arrays.asList(2L, 1L), ids(result));
+    }
+
+    @Test
+    void search_WithUnsupportedSort_ShouldFallBackToRepository() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("status"));
+        when(courseRepository.search("java", pageable)).thenReturn(new PageImpl<>(courses.subList(0, 1)));
+
+        searchEngine.search("java", pageable);
+
+        verify(courseRepository).search("java", pageable);
+    }
+
+    @Test
+    void searchSlice_WithUnsupportedSort_ShouldFallBackWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("status"));
+        when(courseRepository.searchSlice("java", pageable)).thenReturn(new SliceImpl<>(courses.subList(0, 1), pageable, false));
+
+        assertEquals(1, searchEngine.searchSlice("java", pageable).getNumberOfElements());
+
+        verify(courseRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void index_ShouldMakeNewCoursesSearchable() {
+        Course docker = course(5L, "Docker", "Intermediate", null, 3);
+        courses.add(docker);
+
+        searchEngine.index(docker);
+
+        assertEquals(Arrays.asList(5L), ids(searchEngine.search("docker", PageRequest.of(0, 10))));
+    }
+
+    @Test
+    void remove_ShouldDropCourseFromResults() {
+        searchEngine.remove(3L);
+
+        assertEquals(0, searchEngine.search("html", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesCommittedWhileReadingTheTable() throws IOException {
+        Course renamed = course(2L, "Kubernetes", "Beginner", null, 5);
+        List<Course> snapshot = courses;
+        courses = new ArrayList<>(Arrays.asList(courses.get(0), renamed, courses.get(3)));
+        when(courseRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            // Both commits land after the batch was read, the batch still holds the old rows
+            searchEngine.index(renamed);
+            searchEngine.remove(3L);
+            return new PageImpl<>(snapshot);
+        });
+
+        searchEngine.rebuild();
+
+        assertEquals(Arrays.asList(2L), ids(searchEngine.search("kubernetes", PageRequest.of(0, 10))));
+        assertEquals(0, searchEngine.search("programming", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, searchEngine.search("html", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(1, searchEngine.search("kotlin", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void rebuild_ShouldNotDuplicateCoursesAlreadyIndexed() throws IOException {
+        searchEngine.index(courses.get(1));
+
+        searchEngine.rebuild();
+
+        assertEquals(Arrays.asList(2L), ids(searchEngine.search("programming", PageRequest.of(0, 10))));
+    }
+
+    private static List<Long> ids(Page<Course> page) {
+        return page.getContent().stream().map(Course::getId).collect(Collectors.toList());
+    }
+
+    private static Course course(Long id, String title, String level, String prerequisites, int startInDays) {
+        return Course.builder()
+                .id(id)
+                .title(title)
+                .level(level)
+                .prerequisites(prerequisites)
+                .startDate(LocalDate.now().plusDays(startInDays))
+                .endDate(LocalDate.now().plusDays(startInDays + 30))
+                .minCapacity(5)
+                .maxCapacity(20)
+                .status(CourseStatus.PLANNED)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.formation.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.Student;
+import com.formation.repository.StudentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Times the trigram index against the {@code LIKE %keyword%} query it replaced, on the same rows
+ * and with the same page requests.
+ */
+@Slf4j
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@Tag("benchmark")
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:studentsearch;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@ActiveProfiles("test")
+public class StudentSearchBenchmarkTest {
+
+    private static final int STUDENTS = 5000;
+    private static final int ROUNDS = 50;
+    private static final String[] KEYWORDS = {"Searchbd", "Reader", "search12", "@bench.test"};
+
+    @Autowired
+    private TrigramStudentSearchEngine trigramEngine;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Student> newStudents = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            newStudents.add(Student.builder()
+                    .lastName(lastName(i))
+                    .firstName(i % 2 == 0 ? "Reader" : "Writer")
+                    .email("search" + i + "@bench.test")
+                    .level("Beginner")
+                    .build());
+        }
+        studentRepository.saveAll(newStudents);
+        trigramEngine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        // The database is this test's own, one statement instead of an id list too long to parse
+        studentRepository.deleteAllInBatch();
+        trigramEngine.rebuild();
+    }
+
+    @Test
+    void trigramIndex_ShouldReturnTheJpqlResults() {
+        JpqlStudentSearchEngine jpqlEngine = new JpqlStudentSearchEngine(studentRepository);
+        Pageable page = PageRequest.of(0, 20, Sort.by("lastName"));
+
+        for (String keyword : KEYWORDS) {
+            Page<Student> expected = jpqlEngine.search(keyword, page);
+            Page<Student> actual = trigramEngine.search(keyword, page);
+            assertEquals(expected.getTotalElements(), actual.getTotalElements(), keyword);
+            assertEquals(ids(expected), ids(actual), keyword);
+
+            // Warm up both paths before measuring
+            jpqlEngine.search(keyword, page);
+            long jpqlNanos = measure(() -> jpqlEngine.search(keyword, page));
+            long trigramNanos = measure(() -> trigramEngine.search(keyword, page));
+            log.info("'{}' over {} students, {} matches: jpql {} us, trigram {} us",
+                keyword, STUDENTS, expected.getTotalElements(), jpqlNanos / 1000, trigramNanos / 1000);
+        }
+    }
+
+    private static long measure(Supplier<?> search) {
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+
+    private static List<Long> ids(Page<Student> page) {
+        return page.getContent().stream().map(Student::getId).collect(Collectors.toList());
+    }
+
+    // Last names only allow letters, the index is spelled with one letter per digit
+    private static String lastName(int index) {
+        StringBuilder name = new StringBuilder("Search");
+        for (char digit : String.valueOf(index).toCharArray()) {
+            name.append((char) ('a' + digit - '0'));
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,161 @@
+package com.formation.search;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+import com.formation.entity.Student;
+import com.formation.repository.StudentRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class TrigramStudentSearchEngineTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @InjectMocks
+    private TrigramStudentSearchEngine searchEngine;
+
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        students = Arrays.asList(
+            student(1L, "Doe", "John", "john.doe@test.com"),
+            student(2L, "Smith", "Jane", "jane.smith@test.com"),
+            student(3L, "Johnson", "Mary", "mary.j@test.com"),
+            student(4L, "Brown", "Johnny", "jb@test.com"));
+
+        when(studentRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(students));
+        searchEngine.rebuild();
+
+        lenient().when(studentRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Iterable<Long> ids = invocation.getArgument(0);
+            List<Long> wanted = StreamSupport.stream(ids.spliterator(), false).collect(Collectors.toList());
+            return students.stream().filter(s -> wanted.contains(s.getId())).collect(Collectors.toList());
+        });
+    }
+
+    @Test
+    void search_ShouldMatchSubstringsAcrossAllIndexedColumns() {
+        Page<Student> result = searchEngine.search("ohn", PageRequest.of(0, 10, Sort.by("lastName")));
+
+        assertEquals(3, result.getTotalElements());
+        assertEquals(Arrays.asList(4L, 1L, 3L), ids(result));
+        verify(studentRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void search_ShouldBeCaseSensitiveLikeTheJpqlQuery() {
+        Page<Student> result = searchEngine.search("john", PageRequest.of(0, 10, Sort.by("lastName")));
+
+        assertEquals(Arrays.asList(1L), ids(result));
+    }
+
+    @Test
+    void search_WithShortKeyword_ShouldScanIndexedDocuments() {
+        Page<Student> result = searchEngine.search("Jo", PageRequest.of(0, 10, Sort.by("id")));
+
+        assertEquals(Arrays.asList(1L, 3L, 4L), ids(result));
+    }
+
+    @Test
+    void search_ShouldPageSortedMatches() {
+        Page<Student> result = searchEngine.search("test.com", PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "email")));
+
+        assertEquals(4, result.getTotalElements());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(Arrays.asList(2L), ids(result));
+    }
+
+    @Test
+    void search_WithUnsupportedSort_ShouldFallBackToRepository() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("registrationDate"));
+        when(studentRepository.search("Doe", pageable)).thenReturn(new PageImpl<>(students.subList(0, 1)));
+
+        Page<Student> result = searchEngine.search("Doe", pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(studentRepository).search("Doe", pageable);
+    }
+
+    @Test
+    void searchSlice_WithUnsupportedSort_ShouldFallBackWithoutCounting() {
+        Pageable pageable = PageRequest.of(0, 10, Sort.by("registrationDate"));
+        when(studentRepository.searchSlice("Doe", pageable)).thenReturn(new SliceImpl<>(students.subList(0, 1), pageable, false));
+
+        assertEquals(1, searchEngine.searchSlice("Doe", pageable).getNumberOfElements());
+
+        verify(studentRepository, never()).search(any(), any());
+    }
+
+    @Test
+    void index_ShouldReplacePreviousEntry() {
+        Student renamed = student(2L, "Smithers", "Jane", "jane.smithers@test.com");
+        students = Arrays.asList(students.get(0), renamed, students.get(2), students.get(3));
+
+        searchEngine.index(renamed);
+
+        assertEquals(Arrays.asList(2L), ids(searchEngine.search("Smithers", PageRequest.of(0, 10))));
+        assertEquals(0, searchEngine.search("smith@", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void remove_ShouldDropEntryFromResults() {
+        searchEngine.remove(1L);
+
+        assertEquals(0, searchEngine.search("Doe", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void rebuild_ShouldKeepChangesCommittedWhileReadingTheTable() {
+        Student renamed = student(2L, "Smithers", "Jane", "jane.smithers@test.com");
+        List<Student> snapshot = students;
+        students = Arrays.asList(students.get(0), renamed, students.get(3));
+        when(studentRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            // Both commits land after the batch was read, the batch still holds the old rows
+            searchEngine.index(renamed);
+            searchEngine.remove(3L);
+            return new PageImpl<>(snapshot);
+        });
+
+        searchEngine.rebuild();
+
+        assertEquals(Arrays.asList(2L), ids(searchEngine.search("Smithers", PageRequest.of(0, 10))));
+        assertEquals(0, searchEngine.search("smith@", PageRequest.of(0, 10)).getTotalElements());
+        assertEquals(0, searchEngine.search("Johnson", PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    private static List<Long> ids(Page<Student> page) {
+        return page.getContent().stream().map(Student::getId).collect(Collectors.toList());
+    }
+
+    private static Student student(Long id, String lastName, String firstName, String email) {
+        return Student.builder()
+                .id(id)
+                .lastName(lastName)
+                .firstName(firstName)
+                .email(email)
+                .level("Beginner")
+                .build();
+    }
+}
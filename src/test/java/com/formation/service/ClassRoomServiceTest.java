@@ -25,6 +25,8 @@ import com.formation.entity.Student;
 import com.formation.entity.Trainer;
 import com.formation.repository.ClassRoomRepository;
 import com.formation.service.impl.ClassRoomServiceImpl;
+import com.formation.uniqueness.RoomNumberFilter;
+import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +35,9 @@ public class ClassRoomServiceTest {
     @Mock
     private ClassRoomRepository classRoomRepository;
 
+    @Mock
+    private RoomNumberFilter roomNumberFilter;
+
     @InjectMocks
     private ClassRoomServiceImpl classRoomService;
 
@@ -65,6 +70,44 @@ public class ClassRoomServiceTest {
         verify(classRoomRepository).save(any(ClassRoom.class));
     }
 
+    @Test
+    void save_WhenFilterRulesOutRoomNumber_ShouldSkipExistsQuery() {
+        when(roomNumberFilter.mightContain("JL-101")).thenReturn(false);
+        when(classRoomRepository.save(classRoom)).thenReturn(classRoom);
+
+        classRoomService.save(classRoom);
+
+        verify(classRoomRepository, never()).existsByRoomNumber(any());
+        verify(roomNumberFilter).put("JL-101");
+    }
+
+    @Test
+    void save_WhenFilterMightContainRoomNumber_ShouldCheckRepository() {
+        when(roomNumberFilter.mightContain("JL-101")).thenReturn(true);
+        when(classRoomRepository.existsByRoomNumber("JL-101")).thenReturn(true);
+
+        assertThrows(EntityExistsException.class, () -> classRoomService.save(classRoom));
+        verify(classRoomRepository, never()).save(any(ClassRoom.class));
+    }
+
+    @Test
+    void update_ShouldKeepStoredOccupancyCounters() {
+        ClassRoom stored = ClassRoom.builder()
+                .id(1L)
+                .name("Java Lab")
+                .roomNumber("JL-101")
+                .currentCapacity(12)
+                .trainerCount(2)
+                .build();
+        when(classRoomRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(classRoomRepository.save(classRoom)).thenReturn(classRoom);
+
+        classRoomService.update(classRoom);
+
+        assertEquals(12, classRoom.getCurrentCapacity());
+        assertEquals(2, classRoom.getTrainerCount());
+    }
+
     @Test
     void findById_WhenClassRoomExists_ShouldReturnClassRoom() {
         when(classRoomRepository.findById(1L)).thenReturn(Optional.of(classRoom));
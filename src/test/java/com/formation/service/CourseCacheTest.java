@@ -0,0 +1,136 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+@SpringBootTest(properties = {
+    "spring.cache.type=jcache",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+public class CourseCacheTest {
+
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 10);
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Course ongoing;
+    private Course planned;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ongoing = courseService.save(course("Ongoing", CourseStatus.IN_PROGRESS, LocalDate.now().minusDays(3)));
+        planned = courseService.save(course("Planned", CourseStatus.PLANNED, LocalDate.now().plusDays(3)));
+        student = studentRepository.save(Student.builder()
+                .lastName("Cache")
+                .firstName("Student")
+                .email("student@course-cache.test")
+                .level("Beginner")
+                .build());
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteById(student.getId());
+        courseRepository.deleteById(ongoing.getId());
+        courseRepository.deleteById(planned.getId());
+    }
+
+    @Test
+    void findById_ShouldBeServedFromCacheUntilUpdated() {
+        courseService.findById(ongoing.getId());
+        courseService.findById(ongoing.getId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        Course changed = courseService.findById(ongoing.getId());
+        changed.setTitle("Renamed");
+        courseService.update(changed);
+
+        assertEquals("Renamed", courseService.findById(ongoing.getId()).getTitle());
+    }
+
+    @Test
+    void findOngoingCourses_ShouldNotTouchTheDatabaseUntilAnOngoingCourseChanges() {
+        Page<Course> first = courseService.findOngoingCourses(FIRST_PAGE);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertSame(first, courseService.findOngoingCourses(FIRST_PAGE));
+        assertEquals(statements, statistics.getPrepareStatementCount());
+
+        // A planned course changing does not affect the ongoing listing
+        planned.setTitle("Still planned");
+        planned = courseService.update(planned);
+        assertSame(first, courseService.findOngoingCourses(FIRST_PAGE));
+
+        // Starting it does
+        planned.setStatus(CourseStatus.IN_PROGRESS);
+        courseService.update(planned);
+        assertTrue(courseService.findOngoingCourses(FIRST_PAGE).getContent().stream()
+            .anyMatch(course -> course.getId().equals(planned.getId())));
+    }
+
+    @Test
+    void enroll_ShouldEvictTheCourseAndItsListing() {
+        assertEquals(0, courseService.findById(planned.getId()).getCurrentCapacity());
+        Page<Course> upcoming = courseService.findUpcomingCourses(FIRST_PAGE);
+
+        courseService.enroll(planned.getId(), student.getId());
+
+        assertEquals(1, courseService.findById(planned.getId()).getCurrentCapacity());
+        assertNotSame(upcoming, courseService.findUpcomingCourses(FIRST_PAGE));
+        courseService.unenroll(planned.getId(), student.getId());
+        assertEquals(0, courseService.findById(planned.getId()).getCurrentCapacity());
+    }
+
+    private static Course course(String title, CourseStatus status, LocalDate startDate) {
+        return Course.builder()
+                .title(title)
+                .level("Advanced")
+                .minCapacity(1)
+                .maxCapacity(20)
+                .startDate(startDate)
+                .endDate(startDate.plusDays(30))
+                .status(status)
+                .build();
+    }
+}
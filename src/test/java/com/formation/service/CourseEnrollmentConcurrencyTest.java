@@ -0,0 +1,119 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+public class CourseEnrollmentConcurrencyTest {
+
+    private static final int STUDENTS = 2000;
+    private static final int SEATS = 500;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Course course;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder()
+                .title("Concurrency")
+                .level("Advanced")
+                .minCapacity(1)
+                .maxCapacity(SEATS)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .build());
+
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            students.add(Student.builder()
+                    .lastName("Load")
+                    .firstName("Tester")
+                    .email("load" + i + "@enrollment.test")
+                    .level("Beginner")
+                    .build());
+        }
+        studentIds = studentRepository.saveAll(students).stream()
+                .map(Student::getId)
+                .collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void enroll_UnderConcurrentLoad_ShouldNeverOversubscribe() throws InterruptedException {
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (Long studentId : studentIds) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    courseService.enroll(course.getId(), studentId);
+                    enrolled.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    rejected.incrementAndGet();
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                }
+            });
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - began) / 1e9;
+        log.info("{} enrollment attempts on {} threads in {} ms, {} per second",
+            STUDENTS, THREADS, Math.round(seconds * 1000), Math.round(STUDENTS / seconds));
+
+        assertEquals(0, failed.get());
+        assertEquals(SEATS, enrolled.get());
+        assertEquals(STUDENTS - SEATS, rejected.get());
+        assertEquals(SEATS, courseRepository.findById(course.getId()).orElseThrow().getCurrentCapacity());
+        assertEquals(SEATS, studentRepository.findByCourseId(course.getId(),
+            org.springframework.data.domain.PageRequest.of(0, 1)).getTotalElements());
+    }
+}
@@ -0,0 +1,150 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+public class CourseOptimisticLockingTest {
+
+    private static final int EDITORS = 8;
+    private static final int EDITS_PER_EDITOR = 25;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder()
+                .title("Optimistic")
+                .level("Advanced")
+                .minCapacity(1)
+                .maxCapacity(10)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void update_WithStaleVersion_ShouldBeRejected() {
+        Long version = courseService.findVersionById(course.getId());
+
+        Course first = edit(version, "First");
+        courseService.update(first);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> courseService.update(edit(version, "Second")));
+        assertEquals("First", courseRepository.findById(course.getId()).orElseThrow().getTitle());
+        assertEquals(version + 1, courseService.findVersionById(course.getId()));
+    }
+
+    @Test
+    void enroll_ShouldMoveTheVersionSoStaleEditsCannotRevertTheSeatCount() {
+        Long version = courseService.findVersionById(course.getId());
+        Student student = studentRepository.save(Student.builder()
+                .lastName("Seat")
+                .firstName("Holder")
+                .email("seat.holder@locking.test")
+                .level("Beginner")
+                .build());
+        try {
+            courseService.enroll(course.getId(), student.getId());
+
+            assertEquals(version + 1, courseService.findVersionById(course.getId()));
+            assertThrows(OptimisticLockingFailureException.class, () -> courseService.update(edit(version, "Stale")));
+            assertEquals(1, courseRepository.findById(course.getId()).orElseThrow().getCurrentCapacity());
+        } finally {
+            studentRepository.deleteById(student.getId());
+        }
+    }
+
+    @Test
+    void update_UnderContention_ShouldApplyEveryEditExactlyOnce() throws InterruptedException {
+        Long initialVersion = courseService.findVersionById(course.getId());
+        AtomicInteger applied = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(EDITORS);
+
+        long began = System.nanoTime();
+        for (int editor = 0; editor < EDITORS; editor++) {
+            int id = editor;
+            executor.execute(() -> {
+                for (int i = 0; i < EDITS_PER_EDITOR; i++) {
+                    while (true) {
+                        try {
+                            // Read the current version, as a client would from the ETag, then write against it
+                            courseService.update(edit(courseService.findVersionById(course.getId()), "Edit " + id + " " + i));
+                            applied.incrementAndGet();
+                            break;
+                        } catch (OptimisticLockingFailureException e) {
+                            conflicts.incrementAndGet();
+                        } catch (Exception e) {
+                            failed.incrementAndGet();
+                            return;
+                        }
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - began) / 1e9;
+        log.info("{} contended course updates on {} threads in {} ms, {} per second, {} conflicts retried",
+            applied.get(), EDITORS, Math.round(seconds * 1000), Math.round(applied.get() / seconds), conflicts.get());
+
+        assertEquals(0, failed.get());
+        assertEquals(EDITORS * EDITS_PER_EDITOR, applied.get());
+        assertEquals(initialVersion + EDITORS * EDITS_PER_EDITOR, courseService.findVersionById(course.getId()));
+    }
+
+    private Course edit(Long version, String title) {
+        Course edited = Course.builder()
+                .id(course.getId())
+                .title(title)
+                .level(course.getLevel())
+                .minCapacity(course.getMinCapacity())
+                .maxCapacity(course.getMaxCapacity())
+                .startDate(course.getStartDate())
+                .endDate(course.getEndDate())
+                .status(course.getStatus())
+                .build();
+        edited.setVersion(version);
+        return edited;
+    }
+}
@@ -15,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -23,6 +24,8 @@ import org.springframework.data.domain.Pageable;
 import com.formation.entity.Course;
 import com.formation.entity.enums.CourseStatus;
 import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+import com.formation.search.CourseSearchEngine;
 import com.formation.service.impl.CourseServiceImpl;
 import javax.persistence.EntityNotFoundException;
 
@@ -32,6 +35,15 @@ public class CourseServiceTest {
     @Mock
     private CourseRepository courseRepository;
 
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private CourseSearchEngine courseSearchEngine;
+
+    @Mock
+    private StudentRepository studentRepository;
+
     @InjectMocks
     private CourseServiceImpl courseService;
 
@@ -63,6 +75,48 @@ public class CourseServiceTest {
         assertNotNull(savedCourse);
         assertEquals(course.getTitle(), savedCourse.getTitle());
         verify(courseRepository).save(any(Course.class));
+        verify(courseSearchEngine).index(course);
+    }
+
+    @Test
+    void enroll_WhenSeatAvailable_ShouldAssignCourseAndReserveSeat() {
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(courseRepository.getById(1L)).thenReturn(course);
+        when(studentRepository.assignCourse(5L, course)).thenReturn(1);
+        when(courseRepository.reserveSeat(1L)).thenReturn(1);
+
+        assertDoesNotThrow(() -> courseService.enroll(1L, 5L));
+        verify(courseRepository).reserveSeat(1L);
+    }
+
+    @Test
+    void enroll_WhenCourseIsFull_ShouldThrowException() {
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(courseRepository.getById(1L)).thenReturn(course);
+        when(studentRepository.assignCourse(5L, course)).thenReturn(1);
+        when(courseRepository.reserveSeat(1L)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> courseService.enroll(1L, 5L));
+    }
+
+    @Test
+    void enroll_WhenStudentAlreadyEnrolled_ShouldNotReserveSeat() {
+        when(courseRepository.existsById(1L)).thenReturn(true);
+        when(courseRepository.getById(1L)).thenReturn(course);
+        when(studentRepository.assignCourse(5L, course)).thenReturn(0);
+        when(studentRepository.existsById(5L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> courseService.enroll(1L, 5L));
+        verify(courseRepository, never()).reserveSeat(any());
+    }
+
+    @Test
+    void unenroll_ShouldReleaseSeat() {
+        when(studentRepository.clearCourse(5L, 1L)).thenReturn(1);
+
+        courseService.unenroll(1L, 5L);
+
+        verify(courseRepository).releaseSeat(1L);
     }
 
     @Test
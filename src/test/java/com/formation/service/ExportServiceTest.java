@@ -0,0 +1,121 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.exports.ExportFormat;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class ExportServiceTest {
+
+    private static final int STUDENTS = 1200;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Course course;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        course = courseRepository.save(Course.builder()
+                .title("Export")
+                .level("Advanced")
+                .minCapacity(1)
+                .maxCapacity(STUDENTS)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .build());
+
+        List<Student> cohort = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            cohort.add(Student.builder()
+                    .lastName("Export")
+                    .firstName("Row")
+                    .email("export" + i + "@stream.test")
+                    .level("Beginner")
+                    .course(i % 2 == 0 ? course : null)
+                    .build());
+        }
+        students = studentRepository.saveAll(cohort);
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch(students);
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void exportStudents_ShouldStreamEveryRowWithOneQuery() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportStudents(null, ExportFormat.NDJSON, out);
+        long statements = statistics.getPrepareStatementCount();
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertEquals(studentRepository.count(), lines.size());
+        String first = "{\"id\":" + students.get(0).getId() + ",\"lastName\":\"Export\",\"firstName\":\"Row\","
+            + "\"email\":\"export0@stream.test\",\"level\":\"Beginner\",\"registrationDate\":";
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(first)
+            && line.endsWith(",\"courseId\":" + course.getId() + ",\"classRoomId\":null}")));
+        // Reading the course id must not initialize the lazy association
+        assertEquals(1, statements);
+    }
+
+    @Test
+    void exportStudents_ForCourse_ShouldOnlyStreamTheRoster() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportStudents(course.getId(), ExportFormat.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().collect(Collectors.toList());
+        assertEquals("id,lastName,firstName,email,level,registrationDate,courseId,classRoomId", lines.get(0));
+        assertEquals(STUDENTS / 2 + 1, lines.size());
+        assertTrue(lines.stream().skip(1).allMatch(line -> line.endsWith("," + course.getId() + ",")));
+    }
+
+    @Test
+    void exportCourses_ShouldIncludeTrainerId() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportCourses(ExportFormat.CSV, out);
+
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains(course.getId() + ",Export,Advanced,1," + STUDENTS + ",0,"));
+    }
+}
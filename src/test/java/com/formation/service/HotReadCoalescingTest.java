@@ -0,0 +1,182 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Thundering herd on the coalesced reads, compared with the same load run without coalescing.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class HotReadCoalescingTest {
+
+    private static final int HERD = 200;
+    private static final int THREADS = 64;
+    private static final int ENROLLED = 40;
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Course course;
+    private List<Long> studentIds;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        course = courseRepository.save(Course.builder()
+                .title("Hot course")
+                .level("Beginner")
+                .minCapacity(1)
+                .maxCapacity(ENROLLED)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .build());
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < ENROLLED; i++) {
+            students.add(Student.builder()
+                    .lastName("Herd")
+                    .firstName("Member")
+                    .email("herd" + i + "@coalescing.test")
+                    .level("Beginner")
+                    .course(course)
+                    .build());
+        }
+        studentIds = studentRepository.saveAll(students).stream().map(Student::getId).collect(Collectors.toList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllById(studentIds);
+        courseRepository.deleteById(course.getId());
+    }
+
+    @Test
+    void findById_UnderAHerd_ShouldShareLoads() throws Exception {
+        Long id = course.getId();
+        herd(() -> readOnly(() -> courseRepository.findById(id).orElseThrow()));
+        long direct = statistics.getPrepareStatementCount();
+        herd(() -> courseService.findById(id));
+        long coalesced = statistics.getPrepareStatementCount();
+
+        assertTrue(coalesced < direct / 2,
+            "expected coalescing to cut statements, got " + coalesced + " vs " + direct);
+    }
+
+    @Test
+    void findByCourseId_UnderAHerd_ShouldShareLoads() throws Exception {
+        Long id = course.getId();
+        herd(() -> readOnly(() -> studentRepository.findByCourseId(id, FIRST_PAGE)));
+        long direct = statistics.getPrepareStatementCount();
+        herd(() -> studentService.findByCourseId(id, FIRST_PAGE));
+        long coalesced = statistics.getPrepareStatementCount();
+
+        assertTrue(coalesced < direct / 2,
+            "expected coalescing to cut statements, got " + coalesced + " vs " + direct);
+    }
+
+    // Latencies depend too much on the machine to assert on, they are only logged
+    @Test
+    @Tag("benchmark")
+    void findById_UnderAHerd_ShouldLogLatencies() throws Exception {
+        Long id = course.getId();
+        logLatencies("course by id, direct", herd(() -> readOnly(() -> courseRepository.findById(id).orElseThrow())));
+        logLatencies("course by id, coalesced", herd(() -> courseService.findById(id)));
+    }
+
+    /**
+     * Releases {@link #HERD} identical calls at once and returns their sorted latencies in microseconds. The
+     * statistics count only the statements of the herd when it returns.
+     */
+    private long[] herd(Supplier<Object> call) throws Exception {
+        // Warm up the path before measuring
+        call.get();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < HERD; i++) {
+            latencies.add(executor.submit(() -> {
+                start.await();
+                long began = System.nanoTime();
+                assertNotNull(call.get());
+                return (System.nanoTime() - began) / 1_000;
+            }));
+        }
+        statistics.clear();
+        start.countDown();
+        long[] micros = new long[HERD];
+        for (int i = 0; i < HERD; i++) {
+            micros[i] = latencies.get(i).get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        Arrays.sort(micros);
+        return micros;
+    }
+
+    private void logLatencies(String name, long[] micros) {
+        long p99 = micros[(int) Math.ceil(HERD * 0.99) - 1];
+        log.info("{}: {} calls, {} statements, p50 {} us, p99 {} us",
+            name, HERD, statistics.getPrepareStatementCount(), micros[HERD / 2], p99);
+    }
+
+    private Object readOnly(Supplier<Object> read) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(true);
+        return template.execute(status -> read.get());
+    }
+}
@@ -0,0 +1,247 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.config.CacheConfig;
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.utils.ETags;
+
+/**
+ * Runs against two H2 databases standing in for the primary and its replica. There is no
+ * replication between them, so a row written through the services is only visible when read back
+ * from the primary, which is what shows where each call was routed. A lagging replica is a copy of the
+ * primary taken before the last writes.
+ */
+@SpringBootTest(properties = {
+    "formation.datasource.replica.jdbc-url=jdbc:h2:mem:replicadb;DB_CLOSE_DELAY=-1",
+    "formation.datasource.replica.username=sa",
+    "spring.cache.type=jcache",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+
+    /**
+     * Copies the schema Hibernate created on the primary before the search indexes are rebuilt from
+     * the replica on startup.
+     */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @EventListener(ContextRefreshedEvent.class)
+        public void copySchema(ContextRefreshedEvent event) throws IOException {
+            copy(event.getApplicationContext().getBean("primaryDataSource", DataSource.class),
+                event.getApplicationContext().getBean("replicaDataSource", DataSource.class), "NODATA");
+        }
+
+        static void copy(DataSource primary, DataSource replica, String options) throws IOException {
+            Path script = Files.createTempFile("formation-schema", ".sql");
+            try {
+                new JdbcTemplate(primary).execute("SCRIPT " + options + " TO '" + script + "'");
+                new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+                new JdbcTemplate(replica).execute("RUNSCRIPT FROM '" + script + "'");
+            } finally {
+                Files.delete(script);
+            }
+        }
+    }
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ClassRoomService classRoomService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private Student student;
+    private Course course;
+    private ClassRoom classRoom;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (student != null) {
+            studentService.delete(student.getId());
+        }
+        if (course != null) {
+            courseService.delete(course.getId());
+        }
+        if (classRoom != null) {
+            classRoomService.delete(classRoom.getId());
+        }
+        ReplicaSchema.copy(primaryDataSource, replicaDataSource, "NODATA");
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldUseTheReplica() {
+        assertEquals("TESTDB", currentDatabase(false));
+        assertEquals("REPLICADB", currentDatabase(true));
+    }
+
+    @Test
+    void serviceWrites_ShouldGoToThePrimaryAndReadsToTheReplica() {
+        student = studentService.save(Student.builder()
+                .lastName("Routed")
+                .firstName("Writer")
+                .email("routed.writer@replica.test")
+                .level("Beginner")
+                .build());
+
+        assertEquals(1, new JdbcTemplate(primaryDataSource)
+            .queryForObject("SELECT COUNT(*) FROM students WHERE id = ?", Integer.class, student.getId()));
+        assertEquals(0, new JdbcTemplate(replicaDataSource)
+            .queryForObject("SELECT COUNT(*) FROM students WHERE id = ?", Integer.class, student.getId()));
+        assertEquals(0, studentService.findAll(PageRequest.of(0, 10)).getTotalElements());
+    }
+
+    @Test
+    void cachedCourse_ShouldBeFilledFromThePrimaryWhenTheReplicaLags() throws IOException {
+        course = courseService.save(course("Before"));
+        replicate();
+        course.setTitle("After");
+        course = courseService.update(course);
+        cacheManager.getCache(CacheConfig.COURSES).clear();
+
+        assertEquals("Before", courseService.findAll(PageRequest.of(0, 10)).getContent().stream()
+            .filter(listed -> listed.getId().equals(course.getId()))
+            .findFirst().orElseThrow().getTitle());
+        assertEquals("After", courseService.findById(course.getId()).getTitle());
+        assertEquals(course.getVersion(), courseService.findVersionById(course.getId()));
+        assertEquals("After", cacheManager.getCache(CacheConfig.COURSES).get(course.getId(), Course.class).getTitle());
+    }
+
+    @Test
+    void replicaReads_ShouldNotFillTheSecondLevelCache() throws IOException {
+        classRoom = classRoomService.save(ClassRoom.builder().name("Before").roomNumber("R-101").build());
+        replicate();
+        classRoom.setName("After");
+        classRoom = classRoomService.update(classRoom);
+        entityManagerFactory.getCache().evictAll();
+
+        assertEquals("Before", classRoomService.findAll(PageRequest.of(0, 10)).getContent().stream()
+            .filter(listed -> listed.getId().equals(classRoom.getId()))
+            .findFirst().orElseThrow().getName());
+        assertFalse(entityManagerFactory.getCache().contains(ClassRoom.class, classRoom.getId()));
+
+        assertEquals("After", classRoomService.findById(classRoom.getId()).getName());
+        assertTrue(entityManagerFactory.getCache().contains(ClassRoom.class, classRoom.getId()));
+        assertEquals("After", classRoomService.findById(classRoom.getId()).getName());
+    }
+
+    @Test
+    void getById_ShouldTagTheVersionOnThePrimary() throws Exception {
+        student = studentService.save(student("tagged"));
+        replicate();
+        student.setFirstName("Renamed");
+        student = studentService.update(student);
+
+        mockMvc.perform(get("/api/students/{id}", student.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETags.of(student.getId(), student.getVersion())))
+                .andExpect(jsonPath("$.firstName").value("Renamed"));
+    }
+
+    @Test
+    void export_ShouldStreamFromTheReplicaAfterCheckingTheCourseOnThePrimary() throws Exception {
+        // Without open-in-view each transaction gets its own connection, a request that started on
+        // the primary does not keep streaming from it
+        course = courseService.save(course("Exported"));
+        student = studentService.save(student("exported"));
+        courseService.enroll(course.getId(), student.getId());
+
+        MvcResult result = mockMvc.perform(get("/api/students/export").param("courseId", course.getId().toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        courseService.unenroll(course.getId(), student.getId());
+    }
+
+    private void replicate() throws IOException {
+        ReplicaSchema.copy(primaryDataSource, replicaDataSource, "");
+    }
+
+    private static Course course(String title) {
+        return Course.builder()
+                .title(title)
+                .level("Beginner")
+                .minCapacity(1)
+                .maxCapacity(20)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .build();
+    }
+
+    private static Student student(String name) {
+        return Student.builder()
+                .lastName("Replica")
+                .firstName("Reader")
+                .email(name + "@replica.test")
+                .level("Beginner")
+                .build();
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT DATABASE()", String.class));
+    }
+}
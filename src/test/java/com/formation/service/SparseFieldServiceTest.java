@@ -0,0 +1,225 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Course;
+import com.formation.entity.Student;
+import com.formation.entity.Trainer;
+import com.formation.entity.enums.CourseStatus;
+import com.formation.fields.FieldCatalog;
+import com.formation.repository.ClassRoomRepository;
+import com.formation.repository.CourseRepository;
+import com.formation.repository.StudentRepository;
+import com.formation.repository.TrainerRepository;
+import com.formation.search.TrigramStudentSearchEngine;
+
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.formation.service.SparseFieldServiceTest$LastStatement",
+    "spring.datasource.url=jdbc:h2:mem:sparsefields;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@ActiveProfiles("test")
+public class SparseFieldServiceTest {
+
+    private static final int STUDENTS = 12;
+
+    @Autowired
+    private SparseFieldService sparseFieldService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TrigramStudentSearchEngine studentSearchEngine;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    private Statistics statistics;
+    private Trainer trainer;
+    private Course course;
+    private ClassRoom classRoom;
+    private List<Student> students;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        trainer = trainerRepository.save(Trainer.builder()
+                .lastName("Sparse")
+                .firstName("Field")
+                .email("field.sparse@fields.test")
+                .specialty("Kotlin")
+                .build());
+        course = courseRepository.save(Course.builder()
+                .title("Sparse fields")
+                .level("Beginner")
+                .minCapacity(1)
+                .maxCapacity(STUDENTS)
+                .startDate(LocalDate.now().plusDays(7))
+                .endDate(LocalDate.now().plusDays(37))
+                .status(CourseStatus.PLANNED)
+                .trainer(trainer)
+                .build());
+        classRoom = classRoomRepository.save(ClassRoom.builder()
+                .name("Sparse fields")
+                .roomNumber("S1")
+                .maxCapacity(STUDENTS)
+                .build());
+
+        List<Student> newStudents = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            newStudents.add(Student.builder()
+                    .lastName("Sparse")
+                    .firstName("Reader")
+                    .email("sparse" + (char) ('a' + i) + "@fields.test")
+                    .level("Beginner")
+                    .course(course)
+                    .classRoom(i % 2 == 0 ? classRoom : null)
+                    .build());
+        }
+        students = studentRepository.saveAll(newStudents);
+        studentSearchEngine.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch(students);
+        courseRepository.deleteById(course.getId());
+        classRoomRepository.deleteById(classRoom.getId());
+        trainerRepository.deleteById(trainer.getId());
+        studentSearchEngine.rebuild();
+    }
+
+    @Test
+    void writeSlice_ShouldSelectOnlyTheRequestedColumns() throws Exception {
+        Pageable page = PageRequest.of(0, 5, Sort.by("email"));
+
+        statistics.clear();
+        JsonNode slice = read(out -> sparseFieldService.writeSlice(
+            FieldCatalog.STUDENTS.select("id,email,courseId"), page, objectMapper.getFactory(), out));
+        String sql = LastStatement.sql.toLowerCase();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(sql.contains(" join "), sql);
+        assertFalse(sql.contains("last_name"), sql);
+        assertEquals(5, slice.get("items").size());
+        assertTrue(slice.get("hasNext").asBoolean());
+        JsonNode first = slice.get("items").get(0);
+        assertEquals(3, first.size());
+        assertEquals("sparsea@fields.test", first.get("email").asText());
+        assertEquals(course.getId().longValue(), first.get("courseId").asLong());
+
+        JsonNode tail = read(out -> sparseFieldService.writeSlice(
+            FieldCatalog.STUDENTS.select("courseTitle,classRoomNumber"), PageRequest.of(2, 5, Sort.by("email")),
+            objectMapper.getFactory(), out));
+        assertTrue(LastStatement.sql.toLowerCase().contains("left outer join"), LastStatement.sql);
+        assertEquals(STUDENTS - 10, tail.get("items").size());
+        assertFalse(tail.get("hasNext").asBoolean());
+        assertEquals("Sparse fields", tail.get("items").get(0).get("courseTitle").asText());
+        assertEquals("S1", tail.get("items").get(0).get("classRoomNumber").asText());
+        assertTrue(tail.get("items").get(1).get("classRoomNumber").isNull());
+    }
+
+    @Test
+    void searches_ShouldKeepTheEngineOrder() throws Exception {
+        Pageable page = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "email"));
+
+        JsonNode students = read(out -> sparseFieldService.writeStudentSearch(
+            "sparse", FieldCatalog.STUDENTS.select("email"), page, objectMapper.getFactory(), out));
+        assertEquals("sparsel@fields.test", students.get("items").get(0).get("email").asText());
+        assertEquals("sparsej@fields.test", students.get("items").get(2).get("email").asText());
+        assertTrue(students.get("hasNext").asBoolean());
+
+        JsonNode trainers = read(out -> sparseFieldService.writeTrainerSearch(
+            "Kotlin", FieldCatalog.TRAINERS.select("lastName,specialty"), PageRequest.of(0, 10),
+            objectMapper.getFactory(), out));
+        assertEquals(1, trainers.get("items").size());
+        assertEquals("Kotlin", trainers.get("items").get(0).get("specialty").asText());
+
+        JsonNode none = read(out -> sparseFieldService.writeStudentSearch(
+            "nomatch", FieldCatalog.STUDENTS.select("id"), page, objectMapper.getFactory(), out));
+        assertEquals(Collections.emptyList(), objectMapper.convertValue(none.get("items"), List.class));
+        assertFalse(none.get("hasNext").asBoolean());
+    }
+
+    @Test
+    void sparsePayload_ShouldBeSmallerThanTheSummaries() throws Exception {
+        Pageable page = PageRequest.of(0, STUDENTS, Sort.by("email"));
+
+        long summaryBytes = objectMapper.writeValueAsBytes(studentService.findSummarySlice(page)).length;
+        long sparseBytes = bytes(out -> sparseFieldService.writeSlice(
+            FieldCatalog.STUDENTS.select("id,lastName"), page, objectMapper.getFactory(), out)).length;
+
+        log.info("{} students: summaries {} bytes, id,lastName {} bytes", STUDENTS, summaryBytes, sparseBytes);
+        assertTrue(sparseBytes * 2 < summaryBytes, sparseBytes + " vs " + summaryBytes);
+    }
+
+    private JsonNode read(Writer writer) throws Exception {
+        return objectMapper.readTree(new String(bytes(writer), StandardCharsets.UTF_8));
+    }
+
+    private static byte[] bytes(Writer writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.write(out);
+        return out.toByteArray();
+    }
+
+    private interface Writer {
+        void write(ByteArrayOutputStream out);
+    }
+
+    public static class LastStatement implements StatementInspector {
+
+        static volatile String sql = "";
+
+        @Override
+        public String inspect(String statement) {
+            sql = statement;
+            return statement;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.entity.ClassRoom;
+import com.formation.entity.Student;
+import com.formation.repository.ClassRoomRepository;
+import com.formation.repository.StudentRepository;
+
+/**
+ * Moves one student between classrooms from several threads at once. Each move must take the
+ * student out of the room it is really in, so the occupancy always adds up to one seat.
+ */
+// Own database, other contexts recreate the shared schema and reset the id sequences under the seeded rows
+@SpringBootTest(properties =
+    "spring.datasource.url=jdbc:h2:mem:classroommoves;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+public class StudentClassRoomMoveConcurrencyTest {
+
+    private static final int CLASSROOMS = 4;
+    private static final int MOVES = 200;
+    private static final int THREADS = 8;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ClassRoomRepository classRoomRepository;
+
+    private List<ClassRoom> classRooms;
+    private Student student;
+
+    @BeforeEach
+    void setUp() {
+        List<ClassRoom> newClassRooms = new ArrayList<>();
+        for (int i = 0; i < CLASSROOMS; i++) {
+            newClassRooms.add(ClassRoom.builder()
+                    .name("Move " + i)
+                    .roomNumber("M" + i)
+                    .maxCapacity(10)
+                    .build());
+        }
+        classRooms = classRoomRepository.saveAll(newClassRooms);
+        student = studentService.save(Student.builder()
+                .lastName("Mover")
+                .firstName("Concurrent")
+                .email("concurrent.mover@moves.test")
+                .level("Beginner")
+                .classRoom(classRooms.get(0))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteById(student.getId());
+        classRoomRepository.deleteAllInBatch(classRooms);
+    }
+
+    @Test
+    void update_WithConcurrentMoves_ShouldKeepOneSeatTaken() throws InterruptedException {
+        List<Throwable> failures = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < MOVES; i++) {
+            ClassRoom target = classRooms.get(i % CLASSROOMS);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    Student move = studentRepository.findById(student.getId()).orElseThrow();
+                    move.setVersion(null);
+                    move.setClassRoom(target);
+                    studentService.update(move);
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        assertEquals(List.of(), failures);
+        Long room = studentRepository.findById(student.getId()).orElseThrow().getClassRoom().getId();
+        for (ClassRoom classRoom : classRoomRepository.findAllById(ids())) {
+            assertEquals(classRoom.getId().equals(room) ? 1 : 0, classRoom.getCurrentCapacity(), classRoom.getName());
+        }
+    }
+
+    private List<Long> ids() {
+        List<Long> ids = new ArrayList<>();
+        classRooms.forEach(classRoom -> ids.add(classRoom.getId()));
+        return ids;
+    }
+}
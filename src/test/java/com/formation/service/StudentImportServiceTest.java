@@ -0,0 +1,81 @@
+package com.formation.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.formation.imports.ImportReport;
+import com.formation.repository.StudentRepository;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class StudentImportServiceTest {
+
+    private static final int ROWS = 1200;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    private List<String> emails;
+
+    @AfterEach
+    void tearDown() {
+        if (emails != null) {
+            studentRepository.deleteAllInBatch(studentRepository.findAll().stream()
+                .filter(student -> emails.contains(student.getEmail()))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void importCsv_ShouldImportValidRowsAcrossChunksAndReportInvalidOnes() {
+        emails = IntStream.range(0, ROWS).mapToObj(i -> "import" + i + "@csv.test").collect(Collectors.toList());
+        StringBuilder csv = new StringBuilder("lastName,firstName,email,level\n");
+        emails.forEach(email -> csv.append("Imported,Student,").append(email).append(",Beginner\n"));
+        // Line 1202: invalid email, 1203: duplicate within the file, 1204: too few fields
+        csv.append("Broken,Row,not-an-email,Beginner\n");
+        csv.append("Twice,Listed,import0@csv.test,Beginner\n");
+        csv.append("Short,Row\n");
+
+        ImportReport report = studentImportService.importCsv(new StringReader(csv.toString()));
+
+        assertEquals(ROWS + 3, report.getTotalRows());
+        assertEquals(ROWS, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(1202, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(1).getMessage().contains("more than once"));
+        assertEquals(1204, report.getErrors().get(2).getLine());
+        assertEquals(ROWS, studentRepository.findExistingEmails(emails).size());
+    }
+
+    @Test
+    void importCsv_ShouldRejectEmailsAlreadyStored() {
+        emails = List.of("again@csv.test");
+        String csv = "email,lastName,firstName,level\nagain@csv.test,Again,Imported,Beginner\n";
+        studentImportService.importCsv(new StringReader(csv));
+
+        ImportReport report = studentImportService.importCsv(new StringReader(csv));
+
+        assertEquals(0, report.getImported());
+        assertEquals(2, report.getErrors().get(0).getLine());
+        assertTrue(report.getErrors().get(0).getMessage().contains("already exists"));
+    }
+
+    @Test
+    void importCsv_WithMissingColumns_ShouldFail() {
+        assertThrows(IllegalArgumentException.class,
+            () -> studentImportService.importCsv(new StringReader("lastName,firstName\nDoe,John\n")));
+    }
+}
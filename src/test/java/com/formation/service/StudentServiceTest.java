@@ -18,10 +18,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import com.formation.entity.ClassRoom;
 import com.formation.entity.Student;
+import com.formation.pagination.Cursor;
+import com.formation.pagination.CursorPage;
+import com.formation.repository.ClassRoomRepository;
+import com.formation.repository.CourseRepository;
 import com.formation.repository.StudentRepository;
+import com.formation.search.StudentSearchEngine;
 import com.formation.service.impl.StudentServiceImpl;
+import javax.persistence.EntityNotFoundException;
 
 @ExtendWith(MockitoExtension.class)
 public class StudentServiceTest {
@@ -29,6 +39,15 @@ public class StudentServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private StudentSearchEngine studentSearchEngine;
+
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+
+    @Mock
+    private CourseRepository courseRepository;
+
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -57,6 +76,60 @@ public class StudentServiceTest {
         assertNotNull(savedStudent);
         assertEquals(student.getEmail(), savedStudent.getEmail());
         verify(studentRepository).save(any(Student.class));
+        verify(studentSearchEngine).index(student);
+    }
+
+    @Test
+    void save_WhenClassRoomIsFull_ShouldThrowException() {
+        student.setId(null);
+        student.setClassRoom(ClassRoom.builder().id(2L).build());
+        when(classRoomRepository.incrementOccupancy(2L)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> studentService.save(student));
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void update_WhenClassRoomChanges_ShouldMoveOccupancy() {
+        student.setClassRoom(ClassRoom.builder().id(2L).build());
+        when(studentRepository.findForUpdateById(1L)).thenReturn(Optional.of(stored(0L, 3L)));
+        when(classRoomRepository.incrementOccupancy(2L)).thenReturn(1);
+        when(studentRepository.save(student)).thenReturn(student);
+
+        studentService.update(student);
+
+        verify(classRoomRepository).incrementOccupancy(2L);
+        verify(classRoomRepository).decrementOccupancy(3L);
+    }
+
+    @Test
+    void update_WithClientVersion_ShouldKeepItForTheOptimisticCheck() {
+        student.setVersion(4L);
+        when(studentRepository.findForUpdateById(1L)).thenReturn(Optional.of(stored(4L, null)));
+        when(studentRepository.save(student)).thenReturn(student);
+
+        studentService.update(student);
+
+        assertEquals(4L, student.getVersion());
+    }
+
+    @Test
+    void update_WithStaleVersion_ShouldFailBeforeMovingOccupancy() {
+        student.setVersion(3L);
+        student.setClassRoom(ClassRoom.builder().id(2L).build());
+        when(studentRepository.findForUpdateById(1L)).thenReturn(Optional.of(stored(4L, 3L)));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> studentService.update(student));
+        verifyNoInteractions(classRoomRepository);
+        verify(studentRepository, never()).save(any(Student.class));
+    }
+
+    @Test
+    void update_WhenStudentMissing_ShouldThrowException() {
+        when(studentRepository.findForUpdateById(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> studentService.update(student));
+        verify(studentRepository, never()).save(any(Student.class));
     }
 
     @Test
@@ -101,11 +174,63 @@ public class StudentServiceTest {
         List<Student> students = Arrays.asList(student);
         Page<Student> studentPage = new PageImpl<>(students);
         
-        when(studentRepository.search("John", pageable)).thenReturn(studentPage);
+        when(studentSearchEngine.search("John", pageable)).thenReturn(studentPage);
         
         Page<Student> result = studentService.search("John", pageable);
         
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
     }
+
+    @Test
+    void findAllSlice_ShouldNotRunCountQuery() {
+        when(studentRepository.findAllBy(pageable)).thenReturn(new SliceImpl<>(Arrays.asList(student), pageable, false));
+
+        Slice<Student> result = studentService.findAllSlice(pageable);
+
+        assertEquals(1, result.getContent().size());
+        verify(studentRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void findAllAfter_WithoutCursor_ShouldReturnFirstPageAndNextCursor() {
+        Student next = Student.builder().id(2L).lastName("Smith").firstName("Jane").build();
+        when(studentRepository.seekFirst(PageRequest.of(0, 2))).thenReturn(Arrays.asList(student, next));
+
+        CursorPage<Student> result = studentService.findAllAfter(null, 1);
+
+        assertEquals(1, result.getItems().size());
+        assertEquals(Cursor.encode("Doe", 1L), result.getNextCursor());
+    }
+
+    @Test
+    void findAllAfter_WithCursor_ShouldSeekPastLastRow() {
+        when(studentRepository.seekAfter("Doe", 1L, PageRequest.of(0, 11))).thenReturn(Arrays.asList(student));
+
+        CursorPage<Student> result = studentService.findAllAfter(Cursor.encode("Doe", 1L), 10);
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void delete_ShouldRemoveStudentFromSearchIndex() {
+        Student stored = stored(0L, 2L);
+        when(studentRepository.findForUpdateById(1L)).thenReturn(Optional.of(stored));
+
+        studentService.delete(1L);
+
+        verify(studentRepository).delete(stored);
+        verify(studentSearchEngine).remove(1L);
+        verify(classRoomRepository).decrementOccupancy(2L);
+    }
+
+    private static Student stored(Long version, Long classRoomId) {
+        return Student.builder()
+                .id(1L)
+                .lastName("Doe")
+                .version(version)
+                .classRoom(classRoomId == null ? null : ClassRoom.builder().id(classRoomId).build())
+                .build();
+    }
 }
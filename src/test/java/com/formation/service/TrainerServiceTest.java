@@ -17,9 +17,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
+import com.formation.entity.ClassRoom;
 import com.formation.entity.Trainer;
+import com.formation.repository.ClassRoomRepository;
 import com.formation.repository.TrainerRepository;
 import com.formation.service.impl.TrainerServiceImpl;
+import com.formation.uniqueness.TrainerEmailFilter;
 import javax.persistence.EntityNotFoundException;
 
 import java.util.Arrays;
@@ -31,6 +34,12 @@ public class TrainerServiceTest {
     @Mock
     private TrainerRepository trainerRepository;
 
+    @Mock
+    private ClassRoomRepository classRoomRepository;
+
+    @Mock
+    private TrainerEmailFilter trainerEmailFilter;
+
     @InjectMocks
     private TrainerServiceImpl trainerService;
 
@@ -61,6 +70,26 @@ public class TrainerServiceTest {
         verify(trainerRepository).save(any(Trainer.class));
     }
 
+    @Test
+    void save_WhenFilterRulesOutEmail_ShouldSkipExistsQuery() {
+        when(trainerEmailFilter.mightContain(trainer.getEmail())).thenReturn(false);
+        when(trainerRepository.save(trainer)).thenReturn(trainer);
+
+        trainerService.save(trainer);
+
+        verify(trainerRepository, never()).existsByEmail(any());
+        verify(trainerEmailFilter).put(trainer.getEmail());
+    }
+
+    @Test
+    void save_WhenFilterMightContainEmail_ShouldCheckRepository() {
+        when(trainerEmailFilter.mightContain(trainer.getEmail())).thenReturn(true);
+        when(trainerRepository.existsByEmail(trainer.getEmail())).thenReturn(true);
+
+        assertThrows(EntityNotFoundException.class, () -> trainerService.save(trainer));
+        verify(trainerRepository, never()).save(any(Trainer.class));
+    }
+
     @Test
     void findById_WhenTrainerExists_ShouldReturnTrainer() {
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
@@ -103,6 +132,24 @@ public class TrainerServiceTest {
         assertEquals("Spring Boot Development", updatedTrainer.getSpecialty());
     }
 
+    @Test
+    void update_WhenClassRoomChanges_ShouldMoveTrainerCount() {
+        Trainer existing = Trainer.builder()
+                .id(1L)
+                .email(trainer.getEmail())
+                .classRoom(ClassRoom.builder().id(3L).build())
+                .build();
+        trainer.setClassRoom(ClassRoom.builder().id(2L).build());
+        when(trainerRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(classRoomRepository.incrementTrainerCount(2L)).thenReturn(1);
+        when(trainerRepository.save(trainer)).thenReturn(trainer);
+
+        trainerService.update(trainer);
+
+        verify(classRoomRepository).incrementTrainerCount(2L);
+        verify(classRoomRepository).decrementTrainerCount(3L);
+    }
+
     @Test
     void delete_WhenTrainerExists_ShouldDeleteTrainer() {
         when(trainerRepository.findById(1L)).thenReturn(Optional.of(trainer));
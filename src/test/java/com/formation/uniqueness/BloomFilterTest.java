@@ -0,0 +1,56 @@
+package com.formation.uniqueness;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    private static final int SIZE = 100_000;
+
+    @Test
+    void mightContain_ShouldNeverMissAPutValue() {
+        BloomFilter filter = new BloomFilter(SIZE, 0.01);
+        for (int i = 0; i < SIZE; i++) {
+            filter.put("trainer" + i + "@formation.com");
+        }
+
+        for (int i = 0; i < SIZE; i++) {
+            assertTrue(filter.mightContain("trainer" + i + "@formation.com"));
+        }
+        assertFalse(filter.isSaturated());
+    }
+
+    @Test
+    void mightContain_ShouldStayNearTheConfiguredFalsePositiveRate() {
+        BloomFilter filter = new BloomFilter(SIZE, 0.01);
+        for (int i = 0; i < SIZE; i++) {
+            filter.put("room-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = SIZE; i < 2 * SIZE; i++) {
+            if (filter.mightContain("room-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < SIZE * 0.02, falsePositives + " false positives out of " + SIZE);
+    }
+
+    @Test
+    void isSaturated_ShouldTurnTrueOncePastExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.put("A-1");
+        filter.put("A-2");
+        assertFalse(filter.isSaturated());
+
+        filter.put("A-3");
+        assertTrue(filter.isSaturated());
+    }
+
+    @Test
+    void constructor_ShouldRejectInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1.0));
+    }
+}
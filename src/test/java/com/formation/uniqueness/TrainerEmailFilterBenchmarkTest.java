@@ -0,0 +1,123 @@
+package com.formation.uniqueness;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.formation.entity.Trainer;
+import com.formation.repository.TrainerRepository;
+import com.formation.service.TrainerService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compares the trainer write path with the email Bloom filter against the previous
+ * {@code existsByEmail} query before every insert.
+ */
+@Slf4j
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class TrainerEmailFilterBenchmarkTest {
+
+    private static final int COHORT = 500;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TrainerService trainerService;
+
+    @Autowired
+    private TrainerEmailFilter trainerEmailFilter;
+
+    private final List<Trainer> saved = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        trainerRepository.deleteAllInBatch(saved);
+        saved.clear();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void save_WithFilter_ShouldSkipTheExistsQueryForNewEmails() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertTrue(trainerEmailFilter.isReady());
+
+        // Warm up both paths before measuring
+        insertCohort("warmup-checked", false);
+        insertCohort("warmup-filtered", true);
+
+        statistics.clear();
+        long checked = insertCohort("checked", false);
+        long checkedStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        long filtered = insertCohort("filtered", true);
+        long filteredStatements = statistics.getPrepareStatementCount();
+
+        log.info("{} trainer inserts: {} per second with existsByEmail, {} per second with the Bloom filter, "
+            + "{} vs {} statements", COHORT, COHORT * 1_000_000_000L / checked, COHORT * 1_000_000_000L / filtered,
+            checkedStatements, filteredStatements);
+
+        // One existsByEmail query saved per insert, false positives aside
+        assertTrue(checkedStatements - filteredStatements >= COHORT * 0.95,
+            "expected the filter to skip the exists query, got " + checkedStatements + " vs " + filteredStatements);
+    }
+
+    @Test
+    void save_WhenEmailIsTaken_ShouldStillBeRejected() {
+        Trainer first = trainerService.save(trainer("taken", 0));
+        saved.add(first);
+
+        assertThrows(Exception.class, () -> trainerService.save(trainer("taken", 0)));
+    }
+
+    private long insertCohort(String prefix, boolean filtered) {
+        List<Trainer> cohort = new ArrayList<>();
+        for (int i = 0; i < COHORT; i++) {
+            cohort.add(trainer(prefix, i));
+        }
+        long start = System.nanoTime();
+        for (Trainer trainer : cohort) {
+            if (filtered) {
+                saved.add(trainerService.save(trainer));
+            } else {
+                saved.add(transactionTemplate.execute(status -> {
+                    if (trainerRepository.existsByEmail(trainer.getEmail())) {
+                        throw new IllegalStateException("Duplicate email " + trainer.getEmail());
+                    }
+                    return trainerRepository.save(trainer);
+                }));
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static Trainer trainer(String prefix, int i) {
+        return Trainer.builder()
+                .lastName("Bench")
+                .firstName("Mark")
+                .email(prefix + i + "@benchmark.test")
+                .specialty("Testing")
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.formation.uniqueness;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+public class UniqueValueFilterTest {
+
+    private final ListFilter filter = new ListFilter();
+
+    @AfterEach
+    void tearDown() {
+        filter.close();
+    }
+
+    @Test
+    void put_WhenSaturated_ShouldRebuildOffTheCallingThread() throws Exception {
+        filter.rebuild();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        filter.block(reading, release);
+
+        int saturated = UniqueValueFilter.MIN_CAPACITY + 1;
+        for (int i = 0; i < saturated; i++) {
+            filter.put("trainer" + i + "@formation.com");
+        }
+        // The save that crossed the threshold returned while the table is still being read
+        assertTrue(reading.await(5, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread().getName(), filter.readBy);
+        filter.put("late@formation.com");
+
+        release.countDown();
+        for (long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+                filter.isRebuilding() && System.nanoTime() < deadline; ) {
+            Thread.sleep(10);
+        }
+        assertFalse(filter.isRebuilding());
+
+        // Neither value is in the table read by the rebuild, both are carried over to the new filter
+        assertTrue(filter.mightContain("trainer" + (saturated - 1) + "@formation.com"));
+        assertTrue(filter.mightContain("late@formation.com"));
+    }
+
+    private static class ListFilter extends UniqueValueFilter {
+
+        private final List<String> values = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch reading;
+        private volatile CountDownLatch release;
+        private volatile String readBy;
+
+        ListFilter() {
+            super("Test", new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        }
+
+        void block(CountDownLatch reading, CountDownLatch release) {
+            this.reading = reading;
+            this.release = release;
+        }
+
+        @Override
+        protected long countValues() {
+            return values.size();
+        }
+
+        @Override
+        protected Stream<String> streamValues() {
+            readBy = Thread.currentThread().getName();
+            if (reading != null) {
+                reading.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return values.stream();
+        }
+    }
+}